@@ -0,0 +1,53 @@
+package com.gallerio.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read-through caches for hot, rarely-changing reads. Each cache is bounded and TTL-evicted, and records stats so
+ * Actuator publishes cache.gets (hit/miss), cache.evictions and cache.load.duration per cache name.
+ * Entries are evicted precisely by CacheInvalidator after the writing transaction commits; the TTL only bounds
+ * staleness if an event is ever missed.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String ARTWORKS = "artworks";
+    public static final String ARTWORKS_BY_USER = "artworksByUser";
+    public static final String ARTISTS = "artists";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${app.cache.artworks.max-size:10000}") long artworksMaxSize,
+            @Value("${app.cache.artworks.ttl-seconds:600}") long artworksTtl,
+            @Value("${app.cache.artworks-by-user.max-size:5000}") long artworksByUserMaxSize,
+            @Value("${app.cache.artworks-by-user.ttl-seconds:600}") long artworksByUserTtl,
+            @Value("${app.cache.artists.ttl-seconds:300}") long artistsTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Only the caches registered here exist; a typo in a cache name fails fast instead of creating a new cache
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(ARTWORKS, build(artworksMaxSize, artworksTtl));
+        cacheManager.registerCustomCache(ARTWORKS_BY_USER, build(artworksByUserMaxSize, artworksByUserTtl));
+        // A single entry holding the whole artist directory
+        cacheManager.registerCustomCache(ARTISTS, build(1, artistsTtl));
+        return cacheManager;
+    }
+
+    private static Cache<Object, Object> build(long maxSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+}
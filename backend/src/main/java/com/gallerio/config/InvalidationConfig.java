@@ -0,0 +1,33 @@
+package com.gallerio.config;
+
+import com.gallerio.service.InvalidationBus;
+import com.gallerio.service.impl.InMemoryInvalidationBus;
+import com.gallerio.service.impl.PostgresInvalidationBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+// Picks the invalidation bus: "postgres" (default, for several replicas) or "memory" (single node, tests)
+@Configuration
+class InvalidationConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.invalidation.bus", havingValue = "postgres", matchIfMissing = true)
+    InvalidationBus postgresInvalidationBus(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties,
+                                            @Value("${app.invalidation.node-id:}") String nodeId,
+                                            @Value("${app.invalidation.reconnect-delay-ms:1000}") long reconnectDelayMillis) {
+        return new PostgresInvalidationBus(jdbcTemplate, dataSourceProperties,
+                nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId, reconnectDelayMillis);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.invalidation.bus", havingValue = "memory")
+    InvalidationBus inMemoryInvalidationBus() {
+        return new InMemoryInvalidationBus();
+    }
+}
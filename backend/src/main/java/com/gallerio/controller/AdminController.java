@@ -1,23 +1,45 @@
 package com.gallerio.controller;
 
-import com.gallerio.model.Order;
+import com.gallerio.dto.AdminOrderFilter;
+import com.gallerio.dto.AdminOrderRow;
+import com.gallerio.dto.DerivativeBackfillStatus;
+import com.gallerio.dto.OrderStatusUpdate;
+import com.gallerio.dto.PageResponse;
+import com.gallerio.dto.ReconciliationReport;
 import com.gallerio.model.User;
 import com.gallerio.service.AdminService;
+import com.gallerio.service.ArtistSalesService;
+import com.gallerio.service.ArtworkDerivativeService;
+import com.gallerio.service.ArtworkSearchService;
+import com.gallerio.service.OrderReconciliationService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
+// Admin only: guarded by the /api/admin/** rule in SecurityConfig
 @RestController
 @RequestMapping("/api/admin")
 @RequiredArgsConstructor
 @CrossOrigin(origins = "http://localhost:3000")
-@PreAuthorize("hasRole('ADMIN')")
 public class AdminController {
 
     private final AdminService adminService;
+    private final OrderReconciliationService orderReconciliationService;
+    private final ArtistSalesService artistSalesService;
+    private final ArtworkDerivativeService artworkDerivativeService;
+    private final ArtworkSearchService artworkSearchService;
 
     @GetMapping("/users/artists")
     public ResponseEntity<List<User>> getAllArtists() {
@@ -29,15 +51,84 @@ public class AdminController {
         return ResponseEntity.ok(adminService.getUsersByRole("COLLECTOR"));
     }
 
+    // Filters: status, from/to (ISO dates, inclusive), artistId, customerId
     @GetMapping("/orders")
-    public ResponseEntity<List<Order>> getAllOrders() {
-        return ResponseEntity.ok(adminService.getAllOrders());
+    public ResponseEntity<PageResponse<AdminOrderRow>> getOrders(
+            AdminOrderFilter filter,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(adminService.getOrders(filter, page, size));
+    }
+
+    // Same filters as the console, every matching row; format is csv or ndjson
+    @GetMapping("/orders/export")
+    public void exportOrders(AdminOrderFilter filter,
+                             @RequestParam(defaultValue = "csv") String format,
+                             HttpServletResponse response) throws IOException {
+        AdminService.ExportFormat exportFormat;
+        try {
+            exportFormat = AdminService.ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unknown export format: " + format);
+            return;
+        }
+        response.setContentType(exportFormat.contentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"orders." + exportFormat.extension() + "\"");
+        adminService.exportOrders(filter, exportFormat, response.getOutputStream());
+    }
+
+    // Bulk status updates, as a JSON list of {orderId, status}; every row gets an outcome in the report
+    @PostMapping(value = "/orders/reconcile", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ReconciliationReport> reconcileOrders(@RequestBody List<OrderStatusUpdate> updates) {
+        return ResponseEntity.ok(orderReconciliationService.reconcile(updates.iterator()));
+    }
+
+    // The same from an uploaded CSV file of "orderId,status" lines, read as it is applied
+    @PostMapping(value = "/orders/reconcile", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ReconciliationReport> reconcileOrdersFile(@RequestParam("file") MultipartFile file)
+            throws IOException {
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(orderReconciliationService.reconcile(reader));
+        }
     }
 
     @PutMapping("/orders/{orderId}/status")
-    public ResponseEntity<Order> updateOrderStatus(
+    public ResponseEntity<?> updateOrderStatus(
             @PathVariable Long orderId,
             @RequestParam String status) {
-        return ResponseEntity.ok(adminService.updateOrderStatus(orderId, status));
+        try {
+            return ResponseEntity.ok(adminService.updateOrderStatus(orderId, status));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Recomputes the artist sales rollup from the orders, as the nightly job does
+    @PostMapping("/orders/stats/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildSalesStats() {
+        return ResponseEntity.ok(Map.of("rows", artistSalesService.rebuild()));
+    }
+
+    // Generates missing image variants for existing artworks; pass afterId to resume from a known point
+    @PostMapping("/artworks/derivatives/backfill")
+    public ResponseEntity<DerivativeBackfillStatus> startDerivativeBackfill(
+            @RequestParam(defaultValue = "0") long afterId) {
+        return ResponseEntity.accepted().body(artworkDerivativeService.startBackfill(afterId));
+    }
+
+    @GetMapping("/artworks/derivatives/backfill")
+    public ResponseEntity<DerivativeBackfillStatus> getDerivativeBackfillStatus() {
+        return ResponseEntity.ok(artworkDerivativeService.getBackfillStatus());
+    }
+
+    // Rebuilds the in-memory artwork search index from the database
+    @PostMapping("/search/reindex")
+    public ResponseEntity<Void> reindexSearch() {
+        artworkSearchService.rebuild();
+        return ResponseEntity.noContent().build();
     }
-} 
\ No newline at end of file
+}
@@ -1,6 +1,9 @@
 package com.gallerio.controller;
 
 import com.gallerio.dto.ArtworkDTO;
+import com.gallerio.dto.ArtworkSearchResponse;
+import com.gallerio.dto.CursorPage;
+import com.gallerio.service.ArtworkSearchService;
 import com.gallerio.service.ArtworkService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
@@ -18,6 +21,9 @@ public class ArtworkController {
     @Autowired
     private ArtworkService artworkService;
 
+    @Autowired
+    private ArtworkSearchService artworkSearchService;
+
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ArtworkDTO> createArtwork(
             @RequestParam("title") String title,
@@ -50,6 +56,37 @@ public class ArtworkController {
         return ResponseEntity.ok(artworkService.getAllArtworks());
     }
 
+    @GetMapping("/catalog")
+    public ResponseEntity<CursorPage<ArtworkDTO>> getCatalogPage(
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "minPrice", required = false) Double minPrice,
+            @RequestParam(value = "maxPrice", required = false) Double maxPrice,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "24") int limit) {
+        try {
+            return ResponseEntity.ok(artworkService.getCatalogPage(category, status, minPrice, maxPrice, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Served from the in-memory search index; no database round trip
+    @GetMapping("/search")
+    public ResponseEntity<ArtworkSearchResponse> search(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "minPrice", required = false) Double minPrice,
+            @RequestParam(value = "maxPrice", required = false) Double maxPrice,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "24") int size) {
+        try {
+            return ResponseEntity.ok(artworkSearchService.search(query, category, minPrice, maxPrice, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<ArtworkDTO>> getArtworksByUser(@PathVariable Long userId) {
         return ResponseEntity.ok(artworkService.getArtworksByUser(userId));
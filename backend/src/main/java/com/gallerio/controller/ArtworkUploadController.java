@@ -0,0 +1,86 @@
+package com.gallerio.controller;
+
+import com.gallerio.dto.ArtworkDTO;
+import com.gallerio.dto.ArtworkUploadRequest;
+import com.gallerio.dto.ArtworkUploadStatus;
+import com.gallerio.service.ArtworkUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Resumable upload: POST to start, PUT each chunk at the current offset, GET to find where to resume, then complete
+@RestController
+@RequestMapping("/api/artwork-uploads")
+@CrossOrigin(origins = "*")
+public class ArtworkUploadController {
+
+    @Autowired
+    private ArtworkUploadService artworkUploadService;
+
+    @PostMapping
+    public ResponseEntity<?> initUpload(@AuthenticationPrincipal UserDetails userDetails,
+                                        @RequestBody ArtworkUploadRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(artworkUploadService.initUpload(userDetails.getUsername(), request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PutMapping(value = "/{uploadId}/chunks", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> writeChunk(@AuthenticationPrincipal UserDetails userDetails,
+                                        @PathVariable String uploadId,
+                                        @RequestParam("offset") long offset,
+                                        HttpServletRequest request) throws IOException {
+        try {
+            // Read the raw body stream; nothing is buffered by the servlet or Spring
+            ArtworkUploadStatus status = artworkUploadService.writeChunk(userDetails.getUsername(), uploadId, offset,
+                    request.getContentLengthLong(), request.getInputStream());
+            return ResponseEntity.ok(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(artworkUploadService.getStatus(userDetails.getUsername(), uploadId));
+        }
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<ArtworkUploadStatus> getStatus(@AuthenticationPrincipal UserDetails userDetails,
+                                                         @PathVariable String uploadId) {
+        try {
+            return ResponseEntity.ok(artworkUploadService.getStatus(userDetails.getUsername(), uploadId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<?> completeUpload(@AuthenticationPrincipal UserDetails userDetails,
+                                            @PathVariable String uploadId) {
+        try {
+            ArtworkDTO artwork = artworkUploadService.completeUpload(userDetails.getUsername(), uploadId);
+            return ResponseEntity.ok(artwork);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Void> abortUpload(@AuthenticationPrincipal UserDetails userDetails,
+                                            @PathVariable String uploadId) {
+        artworkUploadService.abortUpload(userDetails.getUsername(), uploadId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -6,6 +6,9 @@ import com.gallerio.dto.LoginRequest;
 import com.gallerio.dto.RegisterRequest;
 import com.gallerio.model.User;
 import com.gallerio.security.JwtTokenProvider;
+import com.gallerio.security.AuthenticatedUser;
+import com.gallerio.security.PrincipalCache;
+import com.gallerio.security.TokenVersionRegistry;
 import com.gallerio.service.AuthService;
 import com.gallerio.service.EmailService;
 import jakarta.validation.Valid;
@@ -40,6 +43,8 @@ public class AuthController {
 
     private final AuthService authService;
     private final JwtTokenProvider jwtTokenProvider;
+    private final PrincipalCache principalCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
     @PostMapping(value = "/register", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<AuthResponse> register(@Valid @ModelAttribute RegisterRequest request) {
@@ -112,8 +117,23 @@ public class AuthController {
                 );
             }
 
+            // The filter already resolved the principal, from the token claims or the principal cache,
+            // so verification does not need another database call
+            Object principal = authentication.getPrincipal();
+            if (principal instanceof AuthenticatedUser authenticatedUser) {
+                return ResponseEntity.ok(AuthResponse.builder()
+                    .id(authenticatedUser.getId())
+                    .email(authenticatedUser.getEmail())
+                    .username(authenticatedUser.getEmail())
+                    .role(authenticatedUser.getRole())
+                    .message("Token is valid")
+                    .build());
+            }
+
             String email = authentication.getName();
-            Optional<User> userOpt = userService.findByEmail(email);
+            Optional<User> userOpt = principal instanceof User cachedUser
+                ? Optional.of(cachedUser)
+                : userService.findByEmail(email);
             
             if (userOpt.isPresent()) {
                 User user = userOpt.get();
@@ -180,7 +200,10 @@ public class AuthController {
         user.setPassword(authService.encodePassword(newPassword));
         user.setResetCode(null);
         user.setResetCodeExpiry(null);
+        user.setTokenVersion(user.getTokenVersion() + 1);
         userService.save(user);
+        principalCache.invalidate(user.getEmail());
+        tokenVersionRegistry.invalidate(user.getId());
         return ResponseEntity.ok(Map.of("message", "Password reset successful. You can now log in."));
     }
 }
\ No newline at end of file
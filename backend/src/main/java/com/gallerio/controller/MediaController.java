@@ -0,0 +1,46 @@
+package com.gallerio.controller;
+
+import com.gallerio.service.AvatarStorageService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/media")
+@RequiredArgsConstructor
+public class MediaController {
+
+    private final AvatarStorageService avatarStorageService;
+
+    @GetMapping("/avatars/{hash}")
+    public ResponseEntity<Resource> getAvatar(@PathVariable String hash) {
+        Path path;
+        try {
+            path = avatarStorageService.resolve(hash);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!Files.exists(path)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // The name is the content hash, so it doubles as a strong validator and the bytes never change.
+        // Spring answers a matching If-None-Match with 304 based on the ETag set here.
+        return ResponseEntity.ok()
+                .eTag("\"" + hash + "\"")
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .contentType(MediaType.IMAGE_JPEG)
+                .body(new FileSystemResource(path));
+    }
+}
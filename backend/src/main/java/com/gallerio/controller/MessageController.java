@@ -4,16 +4,23 @@ import com.gallerio.repository.UserRepository;
 import com.gallerio.model.Message;
 import com.gallerio.model.User;
 import com.gallerio.service.MessageService;
+import com.gallerio.service.MessageStreamRegistry;
+import com.gallerio.dto.ConversationSummaryDTO;
+import com.gallerio.dto.CursorPage;
 import com.gallerio.dto.MessageDTO;
-import com.gallerio.dto.UserSummaryDTO;
+import com.gallerio.mapper.MessageMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @RestController
@@ -23,6 +30,8 @@ import java.util.stream.Collectors;
 public class MessageController {
     private final MessageService messageService;
     private final UserRepository userRepository;
+    private final MessageMapper messageMapper;
+    private final MessageStreamRegistry messageStreamRegistry;
 
     @PostMapping("/send")
     public ResponseEntity<Message> sendMessage(
@@ -39,37 +48,24 @@ public class MessageController {
         return ResponseEntity.ok(message);
     }
 
+    // Server-Sent Events: a "message" event per message sent to or by the user, replacing inbox polling.
+    // EventSource cannot set headers, so the JWT may be passed as ?access_token= on this path only.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal UserDetails userDetails) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return messageStreamRegistry.open(user.getId());
+    }
+
     @GetMapping
     public ResponseEntity<List<MessageDTO>> getInbox(@AuthenticationPrincipal UserDetails userDetails) {
         User user = userRepository.findByEmail(userDetails.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found"));
         List<Message> messages = messageService.getInbox(user);
-        List<MessageDTO> dtos = messages.stream().map(this::toDTO).collect(Collectors.toList());
+        List<MessageDTO> dtos = messages.stream().map(messageMapper::toDto).collect(Collectors.toList());
         return ResponseEntity.ok(dtos);
     }
 
-    private MessageDTO toDTO(Message message) {
-        return MessageDTO.builder()
-                .id(message.getId())
-                .content(message.getContent())
-                .subject(message.getSubject())
-                .createdAt(message.getCreatedAt() != null ? message.getCreatedAt().toString() : null)
-                .read(message.isRead())
-                .sender(UserSummaryDTO.builder()
-                        .id(message.getSender().getId())
-                        .firstName(message.getSender().getFirstName())
-                        .lastName(message.getSender().getLastName())
-                        .profilePhoto(message.getSender().getProfilePhoto())
-                        .build())
-                .recipient(UserSummaryDTO.builder()
-                        .id(message.getRecipient().getId())
-                        .firstName(message.getRecipient().getFirstName())
-                        .lastName(message.getRecipient().getLastName())
-                        .profilePhoto(message.getRecipient().getProfilePhoto())
-                        .build())
-                .build();
-    }
-
     @GetMapping("/conversation/{userId}")
     public ResponseEntity<List<MessageDTO>> getConversation(
             @AuthenticationPrincipal UserDetails userDetails,
@@ -80,10 +76,68 @@ public class MessageController {
         User user2 = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("Other user not found"));
         List<Message> messages = messageService.getConversation(user1, user2);
-        List<MessageDTO> dtos = messages.stream().map(this::toDTO).collect(Collectors.toList());
+        List<MessageDTO> dtos = messages.stream().map(messageMapper::toDto).collect(Collectors.toList());
         return ResponseEntity.ok(dtos);
     }
 
+    // Thread list with unread badges, read from the conversations summary table
+    @GetMapping("/conversations")
+    public ResponseEntity<CursorPage<ConversationSummaryDTO>> getConversations(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "30") int limit
+    ) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        try {
+            return ResponseEntity.ok(messageService.getConversations(user, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/unread-count")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(@AuthenticationPrincipal UserDetails userDetails) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return ResponseEntity.ok(Map.of("unreadCount", messageService.getUnreadCount(user)));
+    }
+
+    // Newest first, one page at a time; follow nextCursor for older messages
+    @GetMapping("/inbox")
+    public ResponseEntity<CursorPage<MessageDTO>> getInboxPage(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "30") int limit
+    ) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        try {
+            return ResponseEntity.ok(toDtoPage(messageService.getInboxPage(user, cursor, limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Newest first, so the client prepends each further page when scrolling back through the thread
+    @GetMapping("/conversation/{userId}/page")
+    public ResponseEntity<CursorPage<MessageDTO>> getConversationPage(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable Long userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit
+    ) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        User otherUser = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("Other user not found"));
+        try {
+            return ResponseEntity.ok(toDtoPage(messageService.getConversationPage(user, otherUser, cursor, limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PatchMapping("/{id}/read")
     public ResponseEntity<?> markAsRead(
             @AuthenticationPrincipal UserDetails userDetails,
@@ -95,6 +149,61 @@ public class MessageController {
         return ResponseEntity.ok(Map.of("message", "Marked as read"));
     }
 
+    // Marks every message the other user sent in this thread, up to and including upToMessageId, as read
+    @PostMapping("/conversation/{userId}/read")
+    public ResponseEntity<Map<String, Integer>> markConversationRead(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable Long userId,
+            @RequestBody Map<String, Long> payload
+    ) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        Long upToMessageId = payload.get("upToMessageId");
+        if (upToMessageId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(Map.of("updated", messageService.markConversationRead(user, userId, upToMessageId)));
+    }
+
+    @PostMapping("/read")
+    public ResponseEntity<Map<String, Integer>> markManyAsRead(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestBody Map<String, List<Long>> payload
+    ) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        try {
+            return ResponseEntity.ok(Map.of("updated",
+                    messageService.markAsRead(payload.getOrDefault("ids", List.of()), user)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/broadcast")
+    public ResponseEntity<Map<String, Integer>> broadcast(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestBody Map<String, Object> payload
+    ) {
+        User sender = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("Sender not found"));
+        Object recipientIds = payload.get("recipientIds");
+        Object content = payload.get("content");
+        if (!(recipientIds instanceof List<?> ids) || !(content instanceof String text) || text.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            List<Long> recipients = ids.stream().filter(Objects::nonNull)
+                    .map(id -> ((Number) id).longValue()).collect(Collectors.toList());
+            String subject = payload.get("subject") instanceof String value ? value : "";
+            return ResponseEntity.ok(Map.of("sent", messageService.broadcast(sender, recipients, text, subject)));
+        } catch (ClassCastException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
+
     @PostMapping("/{id}/reply")
     public ResponseEntity<MessageDTO> replyToMessage(
             @AuthenticationPrincipal UserDetails userDetails,
@@ -108,7 +217,12 @@ public class MessageController {
         String content = payload.get("content");
         String subject = "Re: " + (original.getSubject() != null ? original.getSubject() : "");
         Message reply = messageService.sendMessage(sender, recipient, content, subject);
-        MessageDTO dto = toDTO(reply);
+        MessageDTO dto = messageMapper.toDto(reply);
         return ResponseEntity.ok(dto);
     }
-} 
\ No newline at end of file
+
+    private CursorPage<MessageDTO> toDtoPage(CursorPage<Message> page) {
+        List<MessageDTO> items = page.getItems().stream().map(messageMapper::toDto).collect(Collectors.toList());
+        return new CursorPage<>(items, page.getNextCursor(), page.isHasMore());
+    }
+}
@@ -2,14 +2,19 @@ package com.gallerio.controller;
 
 import com.gallerio.dto.OrderRequest;
 import com.gallerio.model.Order;
+import com.gallerio.service.ArtistSalesService;
 import com.gallerio.service.OrderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -18,18 +23,33 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final ArtistSalesService artistSalesService;
 
     @PostMapping
-    public ResponseEntity<Order> createOrder(
+    public ResponseEntity<?> createOrder(
             @AuthenticationPrincipal UserDetails userDetails,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @RequestBody OrderRequest request) {
-        Order order = orderService.createOrder(
-            request.getArtworkId(),
-            userDetails.getUsername(),
-            request.getPhoneNumber(),
-            request.getPaymentMethod()
-        );
-        return ResponseEntity.ok(order);
+        try {
+            Order order = idempotencyKey == null
+                ? orderService.createOrder(
+                    request.getArtworkId(),
+                    userDetails.getUsername(),
+                    request.getPhoneNumber(),
+                    request.getPaymentMethod())
+                : orderService.createOrder(
+                    idempotencyKey,
+                    request.getArtworkId(),
+                    userDetails.getUsername(),
+                    request.getPhoneNumber(),
+                    request.getPaymentMethod());
+            return ResponseEntity.ok(order);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            // Another buyer holds or bought the piece
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
     }
 
     @GetMapping("/artist")
@@ -38,6 +58,20 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getArtistOrders(userDetails.getUsername()));
     }
 
+    // Revenue, orders by status and top artworks, bucketed by day, week or month; from/to are ISO dates, inclusive
+    @GetMapping("/artist/stats")
+    public ResponseEntity<?> getArtistStats(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "day") String period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(artistSalesService.getStats(userDetails.getUsername(), period, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
     @GetMapping("/customer")
     public ResponseEntity<List<Order>> getCustomerOrders(
             @AuthenticationPrincipal UserDetails userDetails) {
@@ -0,0 +1,34 @@
+package com.gallerio.controller;
+
+import com.gallerio.service.MediaFileService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Replaces the plain resource handler for /uploads/** so images get validators, ranges and long-lived caching
+@RestController
+@RequiredArgsConstructor
+public class UploadsController {
+
+    private static final String PREFIX = "/uploads/";
+    private static final UrlPathHelper URL_PATH_HELPER = new UrlPathHelper();
+
+    private final MediaFileService mediaFileService;
+
+    @GetMapping(PREFIX + "**")
+    public void getUpload(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = URL_PATH_HELPER.getPathWithinApplication(request);
+        Path file = path.startsWith(PREFIX) ? mediaFileService.resolveUpload(path.substring(PREFIX.length())) : null;
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        mediaFileService.serve(file, request, response);
+    }
+}
@@ -1,8 +1,11 @@
 package com.gallerio.controller;
 
+import com.gallerio.dto.ArtistDirectoryEntry;
+import com.gallerio.dto.PageResponse;
 import com.gallerio.dto.UserProfileResponse;
 import com.gallerio.dto.UserProfileUpdateRequest;
 import com.gallerio.dto.PasswordChangeRequest;
+import com.gallerio.dto.UserSuggestionDTO;
 import com.gallerio.service.UserService;
 import com.gallerio.repository.UserRepository;
 import com.gallerio.model.User;
@@ -56,11 +59,32 @@ public class UserController {
         return ResponseEntity.ok(artists);
     }
 
+    // Paged directory with artwork counts and newest thumbnails; sort is name, newest or artworks
+    @GetMapping("/artists")
+    public ResponseEntity<PageResponse<ArtistDirectoryEntry>> getArtistDirectory(
+            @RequestParam(value = "sort", defaultValue = "name") String sort,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "24") int size) {
+        try {
+            return ResponseEntity.ok(userService.getArtistDirectory(sort, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/search")
     public ResponseEntity<List<UserProfileResponse>> searchUsers(@RequestParam("q") String query) {
         return ResponseEntity.ok(userService.searchUsers(query));
     }
 
+    // Keystroke-level lookups: id, names and avatar hash only, served from memory
+    @GetMapping("/typeahead")
+    public ResponseEntity<List<UserSuggestionDTO>> typeahead(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(userService.typeahead(query, limit));
+    }
+
     @GetMapping("/role/{role}")
     public ResponseEntity<List<User>> getUsersByRole(@PathVariable String role) {
         try {
@@ -0,0 +1,22 @@
+package com.gallerio.dto;
+
+import com.gallerio.model.Order;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+// Query parameters of the admin order console; every filter is optional and the date range is inclusive
+@Data
+public class AdminOrderFilter {
+    private Order.PaymentStatus status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    private Long artistId;
+    private Long customerId;
+}
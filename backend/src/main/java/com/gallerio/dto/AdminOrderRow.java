@@ -0,0 +1,31 @@
+package com.gallerio.dto;
+
+import com.gallerio.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Flat row for the admin order console and export, built by one join in OrderRepository; no entities or avatars
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminOrderRow {
+    private Long id;
+    private Order.PaymentStatus paymentStatus;
+    private String paymentMethod;
+    private String phoneNumber;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+    private Long artworkId;
+    private String artworkTitle;
+    private Double price;
+    private Long artistId;
+    private String artistFirstName;
+    private String artistLastName;
+    private Long customerId;
+    private String customerFirstName;
+    private String customerLastName;
+    private String customerEmail;
+}
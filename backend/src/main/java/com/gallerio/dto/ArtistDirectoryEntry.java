@@ -0,0 +1,31 @@
+package com.gallerio.dto;
+
+import com.gallerio.service.AvatarStorageService;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One row of the paged artist directory, built by a single aggregate query in UserRepository
+@Data
+@NoArgsConstructor
+public class ArtistDirectoryEntry {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String location;
+    private String profilePhoto;
+    private long artworkCount;
+    // Thumbnail (or original image until variants exist) of the artist's newest artwork, null without artworks
+    private String latestArtworkThumbnailUrl;
+
+    // JPQL constructor expression; the avatar hash becomes its public URL here
+    public ArtistDirectoryEntry(Long id, String firstName, String lastName, String location, String avatarHash,
+                                Long artworkCount, String latestArtworkThumbnailUrl) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.location = location;
+        this.profilePhoto = AvatarStorageService.urlFor(avatarHash);
+        this.artworkCount = artworkCount == null ? 0 : artworkCount;
+        this.latestArtworkThumbnailUrl = latestArtworkThumbnailUrl;
+    }
+}
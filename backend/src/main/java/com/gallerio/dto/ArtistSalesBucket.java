@@ -0,0 +1,19 @@
+package com.gallerio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// One day, week or month of an artist's sales; weeks start on Monday
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArtistSalesBucket {
+    private LocalDate periodStart;
+    private double revenue;
+    private long pendingCount;
+    private long paidCount;
+    private long expiredCount;
+}
@@ -0,0 +1,23 @@
+package com.gallerio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// Artist dashboard figures for the orders placed between from and to inclusive, read from the sales rollup
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArtistSalesStats {
+    private String period;
+    private LocalDate from;
+    private LocalDate to;
+    private double revenue;
+    private Map<String, Long> ordersByStatus;
+    private List<ArtistSalesBucket> buckets;
+    private List<ArtistTopArtwork> topArtworks;
+}
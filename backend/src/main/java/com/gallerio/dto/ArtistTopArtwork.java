@@ -0,0 +1,15 @@
+package com.gallerio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArtistTopArtwork {
+    private Long artworkId;
+    private String title;
+    private long paidCount;
+    private double revenue;
+}
@@ -1,11 +1,13 @@
 package com.gallerio.dto;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 import org.springframework.web.multipart.MultipartFile;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Data
+@NoArgsConstructor
 public class ArtworkDTO {
     private Long id;
     private String title;
@@ -13,6 +15,9 @@ public class ArtworkDTO {
     private Double price;
     private String category;
     private String imageUrl;
+    private String thumbnailUrl;
+    private String mediumUrl;
+    private String largeUrl;
     private String status;
     private Long userId;
     private String artistName;
@@ -20,4 +25,24 @@ public class ArtworkDTO {
     private LocalDateTime updatedAt;
     @JsonIgnore
     private MultipartFile image;
-} 
\ No newline at end of file
+
+    // Used by the JPQL constructor projections in ArtworkRepository
+    public ArtworkDTO(Long id, String title, String description, Double price, String category, String imageUrl,
+                      String thumbnailUrl, String mediumUrl, String largeUrl, String status, Long userId, String artistFirstName, String artistLastName,
+                      LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.price = price;
+        this.category = category;
+        this.imageUrl = imageUrl;
+        this.thumbnailUrl = thumbnailUrl;
+        this.mediumUrl = mediumUrl;
+        this.largeUrl = largeUrl;
+        this.status = status;
+        this.userId = userId;
+        this.artistName = artistFirstName + " " + artistLastName;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,21 @@
+package com.gallerio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArtworkSearchResponse {
+    private List<ArtworkDTO> items;
+    private long totalHits;
+    private int page;
+    private int size;
+    // Counts over the whole result set, not just this page
+    private Map<String, Long> categoryFacets;
+    private Map<String, Long> priceFacets;
+}
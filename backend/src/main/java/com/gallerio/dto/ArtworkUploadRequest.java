@@ -0,0 +1,16 @@
+package com.gallerio.dto;
+
+import lombok.Data;
+
+@Data
+public class ArtworkUploadRequest {
+    private String title;
+    private String description;
+    private Double price;
+    private String category;
+    private String status;
+    private String filename;
+    private String contentType;
+    private Long totalBytes;
+    private String sha256;
+}
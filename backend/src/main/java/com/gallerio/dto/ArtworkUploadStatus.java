@@ -0,0 +1,16 @@
+package com.gallerio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArtworkUploadStatus {
+    private String uploadId;
+    private long totalBytes;
+    private long receivedBytes;
+    private String state;
+    private Long artworkId;
+}
@@ -0,0 +1,17 @@
+package com.gallerio.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+// One thread as seen by the requesting user
+@Data
+@Builder
+public class ConversationSummaryDTO {
+    private Long id;
+    private UserSummaryDTO otherUser;
+    private Long lastMessageId;
+    private Long lastSenderId;
+    private String lastMessagePreview;
+    private String lastMessageAt;
+    private int unreadCount;
+}
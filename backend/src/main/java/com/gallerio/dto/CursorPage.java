@@ -0,0 +1,17 @@
+package com.gallerio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    // Opaque position to pass back as ?cursor= for the next page, null on the last page
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,16 @@
+package com.gallerio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DerivativeBackfillStatus {
+    private boolean running;
+    private long queued;
+    private long generated;
+    private long failed;
+    private long lastArtworkId;
+}
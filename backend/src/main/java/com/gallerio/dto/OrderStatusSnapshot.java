@@ -0,0 +1,17 @@
+package com.gallerio.dto;
+
+import com.gallerio.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// An order's status with the artwork and artist ids its cache invalidations need, read in one query per chunk
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusSnapshot {
+    private Long orderId;
+    private Order.PaymentStatus paymentStatus;
+    private Long artworkId;
+    private Long artistId;
+}
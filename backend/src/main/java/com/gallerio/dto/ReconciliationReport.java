@@ -0,0 +1,19 @@
+package com.gallerio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+// truncated is set when the request had more rows than app.orders.reconcile.max-rows; the rest were not read
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationReport {
+    private long total;
+    private boolean truncated;
+    private Map<ReconciliationResult.Outcome, Long> outcomes;
+    private List<ReconciliationResult> results;
+}
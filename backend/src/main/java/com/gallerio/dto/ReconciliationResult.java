@@ -0,0 +1,31 @@
+package com.gallerio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of one reconciliation row; row is its 1-based position in the request
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationResult {
+    private long row;
+    private Long orderId;
+    private String status;
+    private Outcome outcome;
+    private String message;
+
+    public enum Outcome {
+        UPDATED,
+        // Already in the requested status
+        UNCHANGED,
+        NOT_FOUND,
+        // No longer pending payment, so it cannot move to the requested status
+        CONFLICT,
+        INVALID,
+        // The order appeared earlier in the same request
+        DUPLICATE,
+        // Its chunk's transaction rolled back
+        FAILED
+    }
+}
@@ -0,0 +1,15 @@
+package com.gallerio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserSuggestionDTO {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String avatarHash;
+}
@@ -0,0 +1,20 @@
+package com.gallerio.event;
+
+// Published by ArtworkServiceImpl inside the write transaction; listeners usually react after commit.
+// previousUserId is set when an update moved the artwork to a different artist.
+public record ArtworkChangedEvent(Long artworkId, Long userId, Type type, Long previousUserId) {
+
+    public ArtworkChangedEvent(Long artworkId, Long userId, Type type) {
+        this(artworkId, userId, type, null);
+    }
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        // Image variants were written; published outside any transaction by ArtworkDerivativeService
+        VARIANTS_GENERATED,
+        // Reserved, sold or released by an order; nothing but the status changed
+        STATUS_CHANGED
+    }
+}
@@ -0,0 +1,11 @@
+package com.gallerio.event;
+
+// Published when a user's name or avatar may have changed, or the user was created or removed
+public record UserChangedEvent(Long userId, Type type) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
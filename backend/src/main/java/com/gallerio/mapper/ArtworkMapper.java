@@ -0,0 +1,47 @@
+package com.gallerio.mapper;
+
+import com.gallerio.dto.ArtworkDTO;
+import com.gallerio.model.Artwork;
+import org.springframework.stereotype.Component;
+
+// Plain field-by-field copies; replaces BeanUtils.copyProperties, which introspects properties reflectively per call
+@Component
+public class ArtworkMapper {
+
+    public ArtworkDTO toDto(Artwork artwork) {
+        ArtworkDTO dto = new ArtworkDTO();
+        dto.setId(artwork.getId());
+        dto.setTitle(artwork.getTitle());
+        dto.setDescription(artwork.getDescription());
+        dto.setPrice(artwork.getPrice());
+        dto.setCategory(artwork.getCategory());
+        dto.setImageUrl(artwork.getImageUrl());
+        dto.setThumbnailUrl(artwork.getThumbnailUrl());
+        dto.setMediumUrl(artwork.getMediumUrl());
+        dto.setLargeUrl(artwork.getLargeUrl());
+        dto.setStatus(artwork.getStatus());
+        dto.setCreatedAt(artwork.getCreatedAt());
+        dto.setUpdatedAt(artwork.getUpdatedAt());
+        if (artwork.getUser() != null) {
+            dto.setUserId(artwork.getUser().getId());
+            dto.setArtistName(artwork.getUser().getFirstName() + " " + artwork.getUser().getLastName());
+        }
+        return dto;
+    }
+
+    public Artwork toEntity(ArtworkDTO dto) {
+        Artwork artwork = new Artwork();
+        updateEntity(dto, artwork);
+        return artwork;
+    }
+
+    // Copies the editable columns; id, owner, timestamps and image variants are managed by the entity and services
+    public void updateEntity(ArtworkDTO dto, Artwork artwork) {
+        artwork.setTitle(dto.getTitle());
+        artwork.setDescription(dto.getDescription());
+        artwork.setPrice(dto.getPrice());
+        artwork.setCategory(dto.getCategory());
+        artwork.setImageUrl(dto.getImageUrl());
+        artwork.setStatus(dto.getStatus());
+    }
+}
@@ -0,0 +1,39 @@
+package com.gallerio.mapper;
+
+import com.gallerio.dto.ConversationSummaryDTO;
+import com.gallerio.dto.MessageDTO;
+import com.gallerio.model.Conversation;
+import com.gallerio.model.Message;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class MessageMapper {
+
+    private final UserProfileMapper userProfileMapper;
+
+    public MessageDTO toDto(Message message) {
+        return MessageDTO.builder()
+                .id(message.getId())
+                .content(message.getContent())
+                .subject(message.getSubject())
+                .createdAt(message.getCreatedAt() != null ? message.getCreatedAt().toString() : null)
+                .read(message.isRead())
+                .sender(userProfileMapper.toSummary(message.getSender()))
+                .recipient(userProfileMapper.toSummary(message.getRecipient()))
+                .build();
+    }
+
+    public ConversationSummaryDTO toSummary(Conversation conversation, Long viewerId) {
+        return ConversationSummaryDTO.builder()
+                .id(conversation.getId())
+                .otherUser(userProfileMapper.toSummary(conversation.otherParticipant(viewerId)))
+                .lastMessageId(conversation.getLastMessageId())
+                .lastSenderId(conversation.getLastSenderId())
+                .lastMessagePreview(conversation.getLastMessagePreview())
+                .lastMessageAt(conversation.getLastMessageAt() != null ? conversation.getLastMessageAt().toString() : null)
+                .unreadCount(conversation.unreadFor(viewerId))
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.gallerio.mapper;
+
+import com.gallerio.dto.UserProfileResponse;
+import com.gallerio.dto.UserSummaryDTO;
+import com.gallerio.model.User;
+import com.gallerio.service.AvatarStorageService;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserProfileMapper {
+
+    public UserProfileResponse toProfileResponse(User user) {
+        return UserProfileResponse.builder()
+                .id(user.getId())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .role(user.getRole().name())
+                .location(user.getLocation())
+                .bio(user.getBio())
+                .profilePhoto(AvatarStorageService.urlFor(user.getAvatarHash()))
+                .build();
+    }
+
+    public UserSummaryDTO toSummary(User user) {
+        return UserSummaryDTO.builder()
+                .id(user.getId())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .profilePhoto(AvatarStorageService.urlFor(user.getAvatarHash()))
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.gallerio.migration;
+
+import com.gallerio.service.ArtistSalesService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-shot build of the artist sales rollup from the orders placed before it existed. Runs only while the
+ * rollup is still empty; the nightly rebuild picks up anything this misses.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.orders.stats.backfill", havingValue = "true", matchIfMissing = true)
+public class ArtistSalesBackfill implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ArtistSalesService artistSalesService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Boolean pending = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM _order) AND NOT EXISTS (SELECT 1 FROM artist_sales_daily)", Boolean.class);
+        if (Boolean.TRUE.equals(pending)) {
+            artistSalesService.rebuild();
+        }
+    }
+}
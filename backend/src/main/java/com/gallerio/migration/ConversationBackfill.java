@@ -0,0 +1,45 @@
+package com.gallerio.migration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds conversation summaries for message threads that have none. During a rolling deploy upgraded nodes
+ * already create summaries for new threads while older threads, and any thread started on a node that is not
+ * yet upgraded, still lack one, so this runs on every startup and only fills the missing pairs. Disable it
+ * once every node runs a version that maintains the table.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.messages.backfill-conversations", havingValue = "true", matchIfMissing = true)
+public class ConversationBackfill implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Latest message per unordered pair without a summary, plus each side's unread count
+        int created = jdbcTemplate.update(
+                "INSERT INTO conversations (user_low_id, user_high_id, last_message_id, last_sender_id, " +
+                "last_message_preview, last_message_at, unread_low, unread_high) " +
+                "SELECT l.low_id, l.high_id, l.id, l.sender_id, LEFT(l.content, 200), l.created_at, " +
+                "(SELECT COUNT(*) FROM messages u WHERE u.recipient_id = l.low_id AND u.sender_id = l.high_id AND NOT u.read), " +
+                "(SELECT COUNT(*) FROM messages u WHERE u.recipient_id = l.high_id AND u.sender_id = l.low_id AND NOT u.read) " +
+                "FROM (SELECT DISTINCT ON (LEAST(sender_id, recipient_id), GREATEST(sender_id, recipient_id)) " +
+                "LEAST(sender_id, recipient_id) AS low_id, GREATEST(sender_id, recipient_id) AS high_id, " +
+                "id, sender_id, content, created_at FROM messages " +
+                "ORDER BY LEAST(sender_id, recipient_id), GREATEST(sender_id, recipient_id), created_at DESC, id DESC) l " +
+                "WHERE NOT EXISTS (SELECT 1 FROM conversations c " +
+                "WHERE c.user_low_id = l.low_id AND c.user_high_id = l.high_id) " +
+                "ON CONFLICT DO NOTHING");
+        if (created > 0) {
+            log.info("Conversation backfill created {} conversation summaries", created);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.gallerio.migration;
+
+import com.gallerio.model.Order;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Widens the _order.payment_status check constraint to every Order.PaymentStatus value. Hibernate creates the
+ * column on PostgreSQL as varchar with a check listing the enum values of the day, and ddl-auto=update never
+ * revisits it, so databases created before EXPIRED existed reject every write of it. A no-op once the
+ * constraint allows all values, and on databases without such constraints.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentStatusConstraintMigration implements ApplicationRunner {
+
+    private static final String CONSTRAINT = "_order_payment_status_check";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+
+        List<String> names = Arrays.stream(Order.PaymentStatus.values()).map(Enum::name).toList();
+        List<String> outdated = jdbcTemplate.queryForList(
+                "SELECT conname, pg_get_constraintdef(oid) AS definition FROM pg_constraint " +
+                "WHERE conrelid = '_order'::regclass AND contype = 'c' AND pg_get_constraintdef(oid) LIKE '%payment_status%'")
+                .stream()
+                .filter(row -> names.stream().anyMatch(name -> !((String) row.get("definition")).contains("'" + name + "'")))
+                .map(row -> (String) row.get("conname"))
+                .toList();
+        if (outdated.isEmpty()) {
+            return;
+        }
+
+        String allowed = names.stream().map(name -> "'" + name + "'").collect(Collectors.joining(", "));
+        // One statement, so writers never see the table without a check
+        jdbcTemplate.execute("ALTER TABLE _order " +
+                outdated.stream().map(name -> "DROP CONSTRAINT \"" + name + "\", ").collect(Collectors.joining()) +
+                "ADD CONSTRAINT " + CONSTRAINT + " CHECK (payment_status IN (" + allowed + "))");
+        log.info("Replaced _order payment status check {} to allow {}", outdated, names);
+    }
+}
@@ -0,0 +1,38 @@
+package com.gallerio.migration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops the legacy _user.profile_photo column. Irreversible, so it runs only when explicitly enabled for a
+ * deploy after every replica is on a release that no longer reads the column, and only once
+ * ProfilePhotoMigration has moved every photo out of it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.avatar.drop-legacy-photo-column", havingValue = "true")
+public class ProfilePhotoColumnDrop implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!ProfilePhotoMigration.legacyColumnExists(jdbcTemplate)) {
+            return;
+        }
+        Boolean remaining = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM _user WHERE profile_photo IS NOT NULL)", Boolean.class);
+        if (Boolean.TRUE.equals(remaining)) {
+            log.warn("Not dropping _user.profile_photo: some photos have not been migrated yet");
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE _user DROP COLUMN profile_photo");
+        log.info("Dropped legacy _user.profile_photo column");
+    }
+}
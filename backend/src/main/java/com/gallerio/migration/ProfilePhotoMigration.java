@@ -0,0 +1,81 @@
+package com.gallerio.migration;
+
+import com.gallerio.service.AvatarStorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One-shot move of the legacy base64 _user.profile_photo column into the avatar store.
+ * Each migrated row keeps only avatar_hash and a null profile_photo. The column itself is left in place
+ * so replicas still on the previous release keep working during a rolling deploy; ProfilePhotoColumnDrop
+ * removes it once the rollout is finished.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.avatar.migrate-legacy-photos", havingValue = "true", matchIfMissing = true)
+public class ProfilePhotoMigration implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AvatarStorageService avatarStorageService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!legacyColumnExists()) {
+            return;
+        }
+
+        long lastId = 0;
+        int migrated = 0;
+        int failed = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT id, profile_photo FROM _user WHERE profile_photo IS NOT NULL AND id > ? ORDER BY id LIMIT ?",
+                    lastId, BATCH_SIZE);
+            if (rows.isEmpty()) {
+                break;
+            }
+            for (Map<String, Object> row : rows) {
+                long id = ((Number) row.get("id")).longValue();
+                lastId = id;
+                try {
+                    byte[] bytes = Base64.getDecoder().decode(((String) row.get("profile_photo")).trim());
+                    String hash = avatarStorageService.store(bytes);
+                    jdbcTemplate.update("UPDATE _user SET avatar_hash = ?, profile_photo = NULL WHERE id = ?", hash, id);
+                    migrated++;
+                } catch (IllegalArgumentException | IOException e) {
+                    // Leave the row untouched so the data is not lost; it is retried on the next startup
+                    log.warn("Could not migrate profile photo for user {}: {}", id, e.getMessage());
+                    failed++;
+                }
+            }
+        }
+        if (migrated > 0 || failed > 0) {
+            log.info("Profile photo migration finished: {} migrated, {} failed", migrated, failed);
+        }
+    }
+
+    private boolean legacyColumnExists() {
+        return legacyColumnExists(jdbcTemplate);
+    }
+
+    static boolean legacyColumnExists(JdbcTemplate jdbcTemplate) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns " +
+                "WHERE LOWER(table_name) = '_user' AND LOWER(column_name) = 'profile_photo'",
+                Integer.class);
+        return count != null && count > 0;
+    }
+}
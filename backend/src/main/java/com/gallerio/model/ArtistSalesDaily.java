@@ -0,0 +1,48 @@
+package com.gallerio.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+
+/**
+ * Sales rollup row per artwork and day the orders were placed, maintained by ArtistSalesService in the same
+ * transaction as every order insert and status change, and rebuilt from the orders by its nightly job.
+ * Artist dashboards read only these rows, never the orders themselves.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "artist_sales_daily",
+        uniqueConstraints = @UniqueConstraint(name = "uk_artist_sales_daily_artwork_date",
+                columnNames = {"artwork_id", "sales_date"}),
+        indexes = @Index(name = "idx_artist_sales_daily_artist_date", columnList = "artist_id, sales_date"))
+public class ArtistSalesDaily {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long artistId;
+
+    @Column(nullable = false)
+    private Long artworkId;
+
+    // Day the orders were placed; later status changes are counted against that day
+    @Column(nullable = false)
+    private LocalDate salesDate;
+
+    @Column(nullable = false)
+    private long pendingCount;
+
+    @Column(nullable = false)
+    private long paidCount;
+
+    @Column(nullable = false)
+    private long expiredCount;
+
+    // Amount of the PAID orders
+    @Column(nullable = false)
+    private double revenue;
+}
@@ -7,8 +7,16 @@ import jakarta.validation.constraints.Pattern;
 
 @Data
 @Entity
-@Table(name = "artworks")
+@Table(name = "artworks", indexes = {
+        @Index(name = "idx_artworks_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_artworks_user_created_at", columnList = "user_id, created_at"),
+        @Index(name = "idx_artworks_status_reserved_until", columnList = "status, reserved_until")
+})
 public class Artwork {
+    public static final String STATUS_AVAILABLE = "AVAILABLE";
+    public static final String STATUS_RESERVED = "RESERVED";
+    public static final String STATUS_SOLD = "SOLD";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -28,10 +36,26 @@ public class Artwork {
     @Column(nullable = false)
     private String imageUrl;
 
+    // Resized JPEG variants written by ArtworkDerivativeService; null until generated
+    private String thumbnailUrl;
+
+    private String mediumUrl;
+
+    private String largeUrl;
+
     @Column(nullable = false)
-    @Pattern(regexp = "^(AVAILABLE|UNAVAILABLE)$", message = "Status must be either AVAILABLE or UNAVAILABLE")
+    @Pattern(regexp = "^(AVAILABLE|UNAVAILABLE|RESERVED|SOLD)$",
+            message = "Status must be one of AVAILABLE, UNAVAILABLE, RESERVED or SOLD")
     private String status;
 
+    // End of the payment hold while status is RESERVED; the reservation sweeper releases it afterwards
+    private LocalDateTime reservedUntil;
+
+    // Bumped by every write, including the conditional reservation updates in ArtworkRepository
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
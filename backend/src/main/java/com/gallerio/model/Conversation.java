@@ -0,0 +1,62 @@
+package com.gallerio.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Summary row per pair of users who have exchanged messages, maintained by MessageServiceImpl in the same
+ * transaction as the message itself. The pair is stored ordered (userLow.id < userHigh.id) so each thread has
+ * exactly one row, and the unread counters are kept per side.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "conversations",
+        uniqueConstraints = @UniqueConstraint(name = "uk_conversations_pair", columnNames = {"user_low_id", "user_high_id"}),
+        indexes = {
+                @Index(name = "idx_conversations_low_last_message_at", columnList = "user_low_id, last_message_at"),
+                @Index(name = "idx_conversations_high_last_message_at", columnList = "user_high_id, last_message_at")
+        })
+public class Conversation {
+    public static final int PREVIEW_LENGTH = 200;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_low_id", nullable = false)
+    private User userLow;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_high_id", nullable = false)
+    private User userHigh;
+
+    private Long lastMessageId;
+
+    private Long lastSenderId;
+
+    @Column(length = PREVIEW_LENGTH)
+    private String lastMessagePreview;
+
+    @Column(nullable = false)
+    private LocalDateTime lastMessageAt;
+
+    // Unread messages addressed to userLow and to userHigh respectively
+    @Column(nullable = false)
+    private int unreadLow;
+
+    @Column(nullable = false)
+    private int unreadHigh;
+
+    public User otherParticipant(Long userId) {
+        return userLow.getId().equals(userId) ? userHigh : userLow;
+    }
+
+    public int unreadFor(Long userId) {
+        return userLow.getId().equals(userId) ? unreadLow : unreadHigh;
+    }
+}
@@ -9,7 +9,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+        @Index(name = "idx_messages_recipient_created_at", columnList = "recipient_id, created_at"),
+        @Index(name = "idx_messages_sender_recipient_created_at", columnList = "sender_id, recipient_id, created_at")
+})
 public class Message {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
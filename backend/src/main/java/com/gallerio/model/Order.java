@@ -8,7 +8,13 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "_order")
+@Table(name = "_order", indexes = {
+        @Index(name = "idx_order_status_expires_at", columnList = "payment_status, expires_at"),
+        @Index(name = "idx_order_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_order_customer_created_at", columnList = "customer_id, created_at"),
+        @Index(name = "idx_order_artwork_id", columnList = "artwork_id"),
+        @Index(name = "idx_order_status_change_id", columnList = "status_change_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -39,6 +45,16 @@ public class Order {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    // When the artwork's hold lapses if payment has not been confirmed; null for orders placed before holds
+    private LocalDateTime expiresAt;
+
+    // The artwork's price when the order was placed; null for orders placed before it was recorded
+    private Double amount;
+
+    // Set by every statement that moves paymentStatus, so ArtistSalesService counts exactly the rows it moved
+    @Column(length = 36)
+    private String statusChangeId;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -46,6 +62,8 @@ public class Order {
 
     public enum PaymentStatus {
         PAID,
-        PENDING_PAYMENT
+        PENDING_PAYMENT,
+        // The hold lapsed or was released before payment was confirmed
+        EXPIRED
     }
 } 
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.gallerio.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Remembers which order a client's Idempotency-Key produced, so a retried request is answered with that
+ * order instead of placing another. Keys are scoped to the customer and purged once they expire.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "order_idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(name = "uk_order_idempotency_customer_key",
+                columnNames = {"customer_id", "idempotency_key"}),
+        indexes = @Index(name = "idx_order_idempotency_expires_at", columnList = "expires_at"))
+public class OrderIdempotencyKey {
+    public static final int MAX_KEY_LENGTH = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "idempotency_key", nullable = false, length = MAX_KEY_LENGTH)
+    private String idempotencyKey;
+
+    // SHA-256 of the request fields; a key replayed with a different body is rejected
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    // Set in the same transaction as the order insert, so a committed key always has one
+    private Long orderId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
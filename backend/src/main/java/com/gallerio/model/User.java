@@ -42,12 +42,18 @@ public class User implements UserDetails {
     @Column(columnDefinition = "TEXT")
     private String bio;
 
-    @Column(columnDefinition = "TEXT")
-    private String profilePhoto;
+    // SHA-256 of the avatar file in the content-addressed store, served at /media/avatars/{hash}
+    @Column(length = 64)
+    private String avatarHash;
 
     @Builder.Default
     private boolean enabled = true;
 
+    // Embedded in self-contained tokens; incrementing it revokes every token issued before
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int tokenVersion = 0;
+
     @Column
     private String resetCode;
 
@@ -0,0 +1,82 @@
+package com.gallerio.repository;
+
+import com.gallerio.dto.ArtistSalesBucket;
+import com.gallerio.dto.ArtistTopArtwork;
+import com.gallerio.model.ArtistSalesDaily;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ArtistSalesDailyRepository extends JpaRepository<ArtistSalesDaily, Long> {
+
+    // Orders moved by one status change that fall in the rollup row being updated
+    String CHANGED_ORDERS = "FROM Order o JOIN o.artwork a WHERE o.statusChangeId = :changeId " +
+            "AND a.id = s.artworkId AND CAST(o.createdAt AS LocalDate) = s.salesDate";
+
+    // Creates the rows new orders land in; target-less so concurrent first orders of a day cannot both insert
+    @Modifying
+    @Query(value = "INSERT INTO artist_sales_daily (artist_id, artwork_id, sales_date, pending_count, paid_count, " +
+            "expired_count, revenue) " +
+            "SELECT DISTINCT a.user_id, a.id, CAST(o.created_at AS DATE), 0, 0, 0, 0 FROM _order o " +
+            "JOIN artworks a ON a.id = o.artwork_id WHERE o.status_change_id = :changeId ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertMissingForChange(@Param("changeId") String changeId);
+
+    // In-place increments by the number of changed orders per row, so concurrent changes never overwrite
+    // each other's counts
+    @Modifying
+    @Query("UPDATE ArtistSalesDaily s SET " +
+            "s.pendingCount = s.pendingCount + :pendingDelta * (SELECT COUNT(o) " + CHANGED_ORDERS + "), " +
+            "s.paidCount = s.paidCount + :paidDelta * (SELECT COUNT(o) " + CHANGED_ORDERS + "), " +
+            "s.expiredCount = s.expiredCount + :expiredDelta * (SELECT COUNT(o) " + CHANGED_ORDERS + "), " +
+            "s.revenue = s.revenue + :revenueSign * " +
+            "(SELECT COALESCE(SUM(COALESCE(o.amount, a.price)), 0) " + CHANGED_ORDERS + ") " +
+            "WHERE EXISTS (SELECT 1 " + CHANGED_ORDERS + ")")
+    int applyChange(@Param("changeId") String changeId, @Param("pendingDelta") long pendingDelta,
+                    @Param("paidDelta") long paidDelta, @Param("expiredDelta") long expiredDelta,
+                    @Param("revenueSign") double revenueSign);
+
+    @Query("SELECT new com.gallerio.dto.ArtistSalesBucket(s.salesDate, SUM(s.revenue), SUM(s.pendingCount), " +
+            "SUM(s.paidCount), SUM(s.expiredCount)) FROM ArtistSalesDaily s " +
+            "WHERE s.artistId = :artistId AND s.salesDate BETWEEN :from AND :to " +
+            "GROUP BY s.salesDate ORDER BY s.salesDate")
+    List<ArtistSalesBucket> findDailyTotals(@Param("artistId") Long artistId, @Param("from") LocalDate from,
+                                            @Param("to") LocalDate to);
+
+    @Query("SELECT new com.gallerio.dto.ArtistTopArtwork(s.artworkId, a.title, SUM(s.paidCount), SUM(s.revenue)) " +
+            "FROM ArtistSalesDaily s JOIN Artwork a ON a.id = s.artworkId " +
+            "WHERE s.artistId = :artistId AND s.salesDate BETWEEN :from AND :to " +
+            "GROUP BY s.artworkId, a.title HAVING SUM(s.paidCount) > 0 " +
+            "ORDER BY SUM(s.revenue) DESC, SUM(s.paidCount) DESC, s.artworkId")
+    List<ArtistTopArtwork> findTopArtworks(@Param("artistId") Long artistId, @Param("from") LocalDate from,
+                                           @Param("to") LocalDate to, Limit limit);
+
+    // Rebuild: holds off incremental writers (which take ROW EXCLUSIVE) until the new rows commit. PostgreSQL only
+    @Modifying
+    @Query(value = "LOCK TABLE artist_sales_daily IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query("DELETE FROM ArtistSalesDaily")
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = "INSERT INTO artist_sales_daily (artist_id, artwork_id, sales_date, pending_count, paid_count, " +
+            "expired_count, revenue) " +
+            "SELECT a.user_id, a.id, CAST(o.created_at AS DATE), " +
+            "SUM(CASE WHEN o.payment_status = 'PENDING_PAYMENT' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN o.payment_status = 'PAID' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN o.payment_status = 'EXPIRED' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN o.payment_status = 'PAID' THEN COALESCE(o.amount, a.price) ELSE 0 END) " +
+            "FROM _order o JOIN artworks a ON a.id = o.artwork_id " +
+            "GROUP BY a.user_id, a.id, CAST(o.created_at AS DATE)",
+            nativeQuery = true)
+    int insertFromOrders();
+}
@@ -1,12 +1,121 @@
 package com.gallerio.repository;
 
+import com.gallerio.dto.ArtworkDTO;
 import com.gallerio.model.Artwork;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ArtworkRepository extends JpaRepository<Artwork, Long> {
     List<Artwork> findByUserId(Long userId);
     List<Artwork> findByCategory(String category);
-} 
\ No newline at end of file
+
+    // Listing projections: artwork columns plus the artist id and name in one join, never the full User row
+    String LISTING_SELECT = "SELECT new com.gallerio.dto.ArtworkDTO(a.id, a.title, a.description, a.price, " +
+            "a.category, a.imageUrl, a.thumbnailUrl, a.mediumUrl, a.largeUrl, a.status, u.id, u.firstName, u.lastName, " +
+            "a.createdAt, a.updatedAt) " +
+            "FROM Artwork a JOIN a.user u ";
+
+    @Query(LISTING_SELECT + "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ArtworkDTO> findAllListings();
+
+    @Query(LISTING_SELECT + "WHERE a.id = :id")
+    Optional<ArtworkDTO> findListingById(@Param("id") Long id);
+
+    @Query(LISTING_SELECT + "WHERE u.id = :userId ORDER BY a.createdAt DESC, a.id DESC")
+    List<ArtworkDTO> findListingsByUserId(@Param("userId") Long userId);
+
+    // Keyset pagination over (createdAt DESC, id DESC): page cost does not grow with depth
+    @Query(LISTING_SELECT +
+           "WHERE (:category IS NULL OR a.category = :category) " +
+           "AND (:status IS NULL OR a.status = :status) " +
+           "AND (:minPrice IS NULL OR a.price >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR a.price <= :maxPrice) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ArtworkDTO> findCatalogFirstPage(@Param("category") String category,
+                                          @Param("status") String status,
+                                          @Param("minPrice") Double minPrice,
+                                          @Param("maxPrice") Double maxPrice,
+                                          Limit limit);
+
+    @Query(LISTING_SELECT +
+           "WHERE (:category IS NULL OR a.category = :category) " +
+           "AND (:status IS NULL OR a.status = :status) " +
+           "AND (:minPrice IS NULL OR a.price >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR a.price <= :maxPrice) " +
+           "AND (a.createdAt < :cursorCreatedAt OR (a.createdAt = :cursorCreatedAt AND a.id < :cursorId)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ArtworkDTO> findCatalogPageAfter(@Param("category") String category,
+                                          @Param("status") String status,
+                                          @Param("minPrice") Double minPrice,
+                                          @Param("maxPrice") Double maxPrice,
+                                          @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                          @Param("cursorId") Long cursorId,
+                                          Limit limit);
+
+    @Query("SELECT a.id FROM Artwork a WHERE a.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT a.user.id FROM Artwork a WHERE a.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+
+    @Query("SELECT a.imageUrl FROM Artwork a WHERE a.id = :id")
+    Optional<String> findImageUrlById(@Param("id") Long id);
+
+    boolean existsByIdAndThumbnailUrl(Long id, String thumbnailUrl);
+
+    // Targeted update so the background generator never overwrites a concurrent edit of the artwork
+    @Modifying
+    @Query("UPDATE Artwork a SET a.thumbnailUrl = :thumbnailUrl, a.mediumUrl = :mediumUrl, a.largeUrl = :largeUrl " +
+           "WHERE a.id = :id AND a.imageUrl = :imageUrl")
+    int updateVariants(@Param("id") Long id,
+                       @Param("imageUrl") String imageUrl,
+                       @Param("thumbnailUrl") String thumbnailUrl,
+                       @Param("mediumUrl") String mediumUrl,
+                       @Param("largeUrl") String largeUrl);
+
+    // Single-statement reservation: of any number of concurrent buyers exactly one sees an updated row
+    @Modifying
+    @Query("UPDATE Artwork a SET a.status = 'RESERVED', a.reservedUntil = :until, a.updatedAt = :now, " +
+           "a.version = a.version + 1 WHERE a.id = :id AND a.status = 'AVAILABLE'")
+    int reserveIfAvailable(@Param("id") Long id, @Param("until") LocalDateTime until, @Param("now") LocalDateTime now);
+
+    // Ends an order's hold as a sale or a release; the matching expiry ties the hold to this order, not a later one
+    @Modifying
+    @Query("UPDATE Artwork a SET a.status = :status, a.reservedUntil = NULL, a.updatedAt = :now, " +
+           "a.version = a.version + 1 WHERE a.status = 'RESERVED' " +
+           "AND a.id = (SELECT o.artwork.id FROM Order o WHERE o.id = :orderId) " +
+           "AND a.reservedUntil = (SELECT o.expiresAt FROM Order o WHERE o.id = :orderId)")
+    int settleReservationForOrder(@Param("orderId") Long orderId, @Param("status") String status,
+                                  @Param("now") LocalDateTime now);
+
+    // Set-based form of settleReservationForOrder for a chunk of reconciled orders
+    @Modifying
+    @Query("UPDATE Artwork a SET a.status = :status, a.reservedUntil = NULL, a.updatedAt = :now, " +
+           "a.version = a.version + 1 WHERE a.status = 'RESERVED' AND EXISTS (SELECT o.id FROM Order o " +
+           "WHERE o.id IN :orderIds AND o.artwork.id = a.id AND o.expiresAt = a.reservedUntil)")
+    int settleReservationsForOrders(@Param("orderIds") Collection<Long> orderIds, @Param("status") String status,
+                                    @Param("now") LocalDateTime now);
+
+    @Query("SELECT a.id FROM Artwork a WHERE a.status = 'RESERVED' AND a.reservedUntil <= :now ORDER BY a.id")
+    List<Long> findIdsWithExpiredReservation(@Param("now") LocalDateTime now, Limit limit);
+
+    // Re-checks the expiry so a hold settled since the scan above is left alone
+    @Modifying
+    @Query("UPDATE Artwork a SET a.status = 'AVAILABLE', a.reservedUntil = NULL, a.updatedAt = :now, " +
+           "a.version = a.version + 1 WHERE a.id IN :ids AND a.status = 'RESERVED' AND a.reservedUntil <= :now")
+    int releaseExpiredReservations(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    // Backfill scan: artworks still missing variants, walked by id so a restarted job picks up where it stopped
+    @Query("SELECT a.id FROM Artwork a WHERE a.thumbnailUrl IS NULL AND a.id > :afterId ORDER BY a.id")
+    List<Long> findIdsMissingVariants(@Param("afterId") Long afterId, Limit limit);
+}
@@ -0,0 +1,35 @@
+package com.gallerio.repository;
+
+import com.gallerio.model.ArtworkUpload;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArtworkUploadRepository extends JpaRepository<ArtworkUpload, String> {
+
+    // Serializes completion and abort for one upload across threads and nodes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM ArtworkUpload u WHERE u.id = :id")
+    Optional<ArtworkUpload> findByIdForUpdate(@Param("id") String id);
+
+    Optional<ArtworkUpload> findByIdAndUser_Email(String id, String email);
+
+    // Advances only from the offset the chunk was written at, and only while the upload is still open
+    @Modifying
+    @Query("UPDATE ArtworkUpload u SET u.receivedBytes = :received, u.updatedAt = :now " +
+           "WHERE u.id = :id AND u.receivedBytes = :offset " +
+           "AND u.state = com.gallerio.model.ArtworkUpload.State.IN_PROGRESS")
+    int advanceReceivedBytes(@Param("id") String id, @Param("offset") long offset,
+                             @Param("received") long received, @Param("now") LocalDateTime now);
+
+    List<ArtworkUpload> findByStateAndUpdatedAtBefore(ArtworkUpload.State state, LocalDateTime cutoff);
+}
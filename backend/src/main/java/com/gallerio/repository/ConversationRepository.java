@@ -0,0 +1,102 @@
+package com.gallerio.repository;
+
+import com.gallerio.model.Conversation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+
+    // Creates the pair's row on its first message; the pair's unique key is the only one a new row can hit,
+    // so concurrent first messages cannot both insert (target-less form, which H2 also accepts)
+    @Modifying
+    @Query(value = "INSERT INTO conversations (user_low_id, user_high_id, last_message_at, unread_low, unread_high) " +
+            "VALUES (:lowId, :highId, :sentAt, 0, 0) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("lowId") Long lowId, @Param("highId") Long highId,
+                       @Param("sentAt") LocalDateTime sentAt);
+
+    // In-place increments, so concurrent senders never overwrite each other's unread counts
+    @Modifying
+    @Query("UPDATE Conversation c SET c.lastMessageId = :messageId, c.lastSenderId = :senderId, " +
+            "c.lastMessagePreview = :preview, c.lastMessageAt = :sentAt, " +
+            "c.unreadLow = c.unreadLow + CASE WHEN c.userLow.id = :recipientId THEN 1 ELSE 0 END, " +
+            "c.unreadHigh = c.unreadHigh + CASE WHEN c.userHigh.id = :recipientId THEN 1 ELSE 0 END " +
+            "WHERE c.userLow.id = :lowId AND c.userHigh.id = :highId")
+    int recordMessage(@Param("lowId") Long lowId, @Param("highId") Long highId,
+                      @Param("messageId") Long messageId, @Param("senderId") Long senderId,
+                      @Param("recipientId") Long recipientId, @Param("preview") String preview,
+                      @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+            "c.unreadLow = CASE WHEN c.userLow.id = :recipientId AND c.unreadLow >= :count " +
+            "THEN c.unreadLow - :count WHEN c.userLow.id = :recipientId THEN 0 ELSE c.unreadLow END, " +
+            "c.unreadHigh = CASE WHEN c.userHigh.id = :recipientId AND c.unreadHigh >= :count " +
+            "THEN c.unreadHigh - :count WHEN c.userHigh.id = :recipientId THEN 0 ELSE c.unreadHigh END " +
+            "WHERE c.userLow.id = :lowId AND c.userHigh.id = :highId")
+    int decrementUnread(@Param("lowId") Long lowId, @Param("highId") Long highId,
+                        @Param("recipientId") Long recipientId, @Param("count") int count);
+
+    // Recomputes the reader's unread counters from the messages themselves after a bulk read, so the counters
+    // cannot drift however many of the messages were already read
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+            "c.unreadLow = CASE WHEN c.userLow.id = :readerId THEN (SELECT CAST(COUNT(m) AS Integer) FROM Message m " +
+            "WHERE m.recipient.id = :readerId AND m.sender.id = c.userHigh.id AND m.read = false) ELSE c.unreadLow END, " +
+            "c.unreadHigh = CASE WHEN c.userHigh.id = :readerId THEN (SELECT CAST(COUNT(m) AS Integer) FROM Message m " +
+            "WHERE m.recipient.id = :readerId AND m.sender.id = c.userLow.id AND m.read = false) ELSE c.unreadHigh END " +
+            "WHERE (c.userLow.id = :readerId AND c.userHigh.id IN :otherIds) " +
+            "OR (c.userHigh.id = :readerId AND c.userLow.id IN :otherIds)")
+    int recountUnread(@Param("readerId") Long readerId, @Param("otherIds") Collection<Long> otherIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO conversations (user_low_id, user_high_id, last_message_at, unread_low, unread_high) " +
+            "SELECT LEAST(:senderId, u.id), GREATEST(:senderId, u.id), :sentAt, 0, 0 FROM _user u " +
+            "WHERE u.id IN (:recipientIds) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertBroadcastIfAbsent(@Param("senderId") Long senderId, @Param("recipientIds") Collection<Long> recipientIds,
+                                @Param("sentAt") LocalDateTime sentAt);
+
+    // Each recipient's thread gets its own copy of the broadcast as last message, and one more unread
+    @Modifying
+    @Query(value = "UPDATE conversations SET " +
+            "last_message_id = (SELECT MAX(m.id) FROM messages m WHERE m.sender_id = :senderId " +
+            "AND m.recipient_id = CASE WHEN user_low_id = :senderId THEN user_high_id ELSE user_low_id END), " +
+            "last_sender_id = :senderId, last_message_preview = :preview, last_message_at = :sentAt, " +
+            "unread_low = unread_low + CASE WHEN user_low_id = :senderId THEN 0 ELSE 1 END, " +
+            "unread_high = unread_high + CASE WHEN user_high_id = :senderId THEN 0 ELSE 1 END " +
+            "WHERE (user_low_id = :senderId AND user_high_id IN (:recipientIds)) " +
+            "OR (user_high_id = :senderId AND user_low_id IN (:recipientIds))",
+            nativeQuery = true)
+    int recordBroadcast(@Param("senderId") Long senderId, @Param("recipientIds") Collection<Long> recipientIds,
+                        @Param("preview") String preview, @Param("sentAt") LocalDateTime sentAt);
+
+    // A user's threads, most recently active first; each side of the OR is served by its own index
+    String THREADS_SELECT = "SELECT c FROM Conversation c JOIN FETCH c.userLow JOIN FETCH c.userHigh " +
+            "WHERE (c.userLow.id = :userId OR c.userHigh.id = :userId) ";
+    String THREADS_ORDER = "ORDER BY c.lastMessageAt DESC, c.id DESC";
+
+    @Query(THREADS_SELECT + THREADS_ORDER)
+    List<Conversation> findThreadsFirstPage(@Param("userId") Long userId, Limit limit);
+
+    @Query(THREADS_SELECT +
+            "AND (c.lastMessageAt < :cursorAt OR (c.lastMessageAt = :cursorAt AND c.id < :cursorId)) " +
+            THREADS_ORDER)
+    List<Conversation> findThreadsPageAfter(@Param("userId") Long userId,
+                                            @Param("cursorAt") LocalDateTime cursorAt,
+                                            @Param("cursorId") Long cursorId,
+                                            Limit limit);
+
+    @Query("SELECT COALESCE(SUM(CASE WHEN c.userLow.id = :userId THEN c.unreadLow ELSE c.unreadHigh END), 0) " +
+            "FROM Conversation c WHERE c.userLow.id = :userId OR c.userHigh.id = :userId")
+    long countUnread(@Param("userId") Long userId);
+}
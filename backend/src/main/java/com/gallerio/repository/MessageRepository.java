@@ -2,20 +2,90 @@ package com.gallerio.repository;
 
 import com.gallerio.model.Message;
 import com.gallerio.model.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
+    @EntityGraph(attributePaths = {"sender", "recipient"})
     List<Message> findByRecipientOrderByCreatedAtDesc(User recipient);
     List<Message> findBySenderOrderByCreatedAtDesc(User sender);
     List<Message> findBySenderAndRecipientOrRecipientAndSenderOrderByCreatedAtAsc(
         User sender, User recipient, User recipient2, User sender2
     );
-    @Query("SELECT m FROM Message m WHERE (m.sender = :user1 AND m.recipient = :user2) OR (m.sender = :user2 AND m.recipient = :user1) ORDER BY m.createdAt ASC")
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender JOIN FETCH m.recipient WHERE (m.sender = :user1 AND m.recipient = :user2) OR (m.sender = :user2 AND m.recipient = :user1) ORDER BY m.createdAt ASC")
     List<Message> findConversation(@Param("user1") User user1, @Param("user2") User user2);
-} 
\ No newline at end of file
+
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender JOIN FETCH m.recipient WHERE m.id = :id")
+    Optional<Message> findWithParticipantsById(@Param("id") Long id);
+
+    // Returns 1 only for the call that actually flipped the flag, so unread counters are decremented once
+    @Modifying
+    @Query("UPDATE Message m SET m.read = true WHERE m.id = :messageId AND m.recipient.id = :recipientId AND m.read = false")
+    int markReadIfUnread(@Param("messageId") Long messageId, @Param("recipientId") Long recipientId);
+
+    // Set-based read marking: one UPDATE however many messages it covers
+    @Modifying
+    @Query("UPDATE Message m SET m.read = true WHERE m.recipient.id = :recipientId AND m.sender.id = :senderId " +
+            "AND m.id <= :upToId AND m.read = false")
+    int markConversationReadUpTo(@Param("recipientId") Long recipientId, @Param("senderId") Long senderId,
+                                 @Param("upToId") Long upToId);
+
+    @Modifying
+    @Query("UPDATE Message m SET m.read = true WHERE m.recipient.id = :recipientId AND m.id IN :ids AND m.read = false")
+    int markReadByIds(@Param("recipientId") Long recipientId, @Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT m.sender.id FROM Message m WHERE m.recipient.id = :recipientId AND m.id IN :ids")
+    List<Long> findSenderIdsByRecipientAndIds(@Param("recipientId") Long recipientId, @Param("ids") Collection<Long> ids);
+
+    // One INSERT ... SELECT for every recipient of a broadcast; ids that are not users are skipped
+    @Modifying
+    @Query(value = "INSERT INTO messages (sender_id, recipient_id, content, subject, created_at, read) " +
+            "SELECT :senderId, u.id, :content, :subject, :sentAt, false FROM _user u WHERE u.id IN (:recipientIds)",
+            nativeQuery = true)
+    int insertBroadcast(@Param("senderId") Long senderId, @Param("recipientIds") Collection<Long> recipientIds,
+                        @Param("content") String content, @Param("subject") String subject,
+                        @Param("sentAt") LocalDateTime sentAt);
+
+    @Query("SELECT m FROM Message m WHERE m.sender.id = :senderId AND m.createdAt = :sentAt")
+    List<Message> findBySenderIdAndCreatedAt(@Param("senderId") Long senderId, @Param("sentAt") LocalDateTime sentAt);
+
+    // Keyset pages, newest first; participants are fetch-joined so mapping to DTOs issues no further queries
+    String PAGE_SELECT = "SELECT m FROM Message m JOIN FETCH m.sender JOIN FETCH m.recipient ";
+    String PAGE_ORDER = "ORDER BY m.createdAt DESC, m.id DESC";
+    String AFTER_CURSOR = "AND (m.createdAt < :cursorCreatedAt OR (m.createdAt = :cursorCreatedAt AND m.id < :cursorId)) ";
+    // Each branch of the OR is a range scan on (sender_id, recipient_id, created_at)
+    String BETWEEN_USERS = "WHERE ((m.sender.id = :userId AND m.recipient.id = :otherUserId) " +
+            "OR (m.sender.id = :otherUserId AND m.recipient.id = :userId)) ";
+
+    @Query(PAGE_SELECT + "WHERE m.recipient.id = :recipientId " + PAGE_ORDER)
+    List<Message> findInboxFirstPage(@Param("recipientId") Long recipientId, Limit limit);
+
+    @Query(PAGE_SELECT + "WHERE m.recipient.id = :recipientId " + AFTER_CURSOR + PAGE_ORDER)
+    List<Message> findInboxPageAfter(@Param("recipientId") Long recipientId,
+                                     @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                     @Param("cursorId") Long cursorId,
+                                     Limit limit);
+
+    @Query(PAGE_SELECT + BETWEEN_USERS + PAGE_ORDER)
+    List<Message> findConversationFirstPage(@Param("userId") Long userId,
+                                            @Param("otherUserId") Long otherUserId,
+                                            Limit limit);
+
+    @Query(PAGE_SELECT + BETWEEN_USERS + AFTER_CURSOR + PAGE_ORDER)
+    List<Message> findConversationPageAfter(@Param("userId") Long userId,
+                                            @Param("otherUserId") Long otherUserId,
+                                            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                            @Param("cursorId") Long cursorId,
+                                            Limit limit);
+}
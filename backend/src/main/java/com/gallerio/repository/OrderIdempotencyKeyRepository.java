@@ -0,0 +1,33 @@
+package com.gallerio.repository;
+
+import com.gallerio.model.OrderIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface OrderIdempotencyKeyRepository extends JpaRepository<OrderIdempotencyKey, Long> {
+
+    // Claims the key without a read first; a concurrent duplicate waits on the unique index, then sees 0 rows
+    @Modifying
+    @Query(value = "INSERT INTO order_idempotency_keys (customer_id, idempotency_key, request_hash, created_at, expires_at) " +
+            "VALUES (:customerId, :key, :requestHash, :now, :expiresAt) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int claim(@Param("customerId") Long customerId, @Param("key") String key,
+              @Param("requestHash") String requestHash, @Param("now") LocalDateTime now,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE OrderIdempotencyKey k SET k.orderId = :orderId " +
+           "WHERE k.customerId = :customerId AND k.idempotencyKey = :key")
+    int attachOrder(@Param("customerId") Long customerId, @Param("key") String key, @Param("orderId") Long orderId);
+
+    Optional<OrderIdempotencyKey> findByCustomerIdAndIdempotencyKey(Long customerId, String idempotencyKey);
+
+    @Modifying
+    @Query("DELETE FROM OrderIdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
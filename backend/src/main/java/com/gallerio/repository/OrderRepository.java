@@ -1,11 +1,88 @@
 package com.gallerio.repository;
 
+import com.gallerio.dto.AdminOrderRow;
+import com.gallerio.dto.OrderStatusSnapshot;
 import com.gallerio.model.Order;
 import com.gallerio.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByArtwork_User(User artist);
     List<Order> findByCustomer(User customer);
+
+    // Admin console: order, artwork, artist and customer columns in one join, never whole User rows
+    String ADMIN_ORDER_SELECT = "SELECT new com.gallerio.dto.AdminOrderRow(o.id, o.paymentStatus, o.paymentMethod, " +
+            "o.phoneNumber, o.createdAt, o.expiresAt, a.id, a.title, a.price, au.id, au.firstName, au.lastName, " +
+            "cu.id, cu.firstName, cu.lastName, cu.email) ";
+
+    String ADMIN_ORDER_FROM = "FROM Order o JOIN o.artwork a JOIN a.user au JOIN o.customer cu " +
+            "WHERE (:status IS NULL OR o.paymentStatus = :status) " +
+            "AND (:from IS NULL OR o.createdAt >= :from) " +
+            "AND (:to IS NULL OR o.createdAt < :to) " +
+            "AND (:artistId IS NULL OR au.id = :artistId) " +
+            "AND (:customerId IS NULL OR cu.id = :customerId) ";
+
+    String ADMIN_ORDER_ORDER = "ORDER BY o.createdAt DESC, o.id DESC";
+
+    @Query(value = ADMIN_ORDER_SELECT + ADMIN_ORDER_FROM + ADMIN_ORDER_ORDER,
+           countQuery = "SELECT COUNT(o) " + ADMIN_ORDER_FROM)
+    Page<AdminOrderRow> findAdminOrders(@Param("status") Order.PaymentStatus status,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to,
+                                        @Param("artistId") Long artistId,
+                                        @Param("customerId") Long customerId,
+                                        Pageable pageable);
+
+    // Export: rows are read off a server-side cursor in fetch-size chunks; needs an open read-only transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(ADMIN_ORDER_SELECT + ADMIN_ORDER_FROM + ADMIN_ORDER_ORDER)
+    Stream<AdminOrderRow> streamAdminOrders(@Param("status") Order.PaymentStatus status,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to,
+                                            @Param("artistId") Long artistId,
+                                            @Param("customerId") Long customerId);
+
+    // Conditional so a payment confirmation and the expiry sweep can never both win; the rows moved are
+    // tagged with changeId for the sales rollup
+    @Modifying
+    @Query("UPDATE Order o SET o.paymentStatus = :status, o.statusChangeId = :changeId " +
+           "WHERE o.id = :id AND o.paymentStatus = com.gallerio.model.Order.PaymentStatus.PENDING_PAYMENT")
+    int updateStatusIfPending(@Param("id") Long id, @Param("status") Order.PaymentStatus status,
+                              @Param("changeId") String changeId);
+
+    // Reconciliation works a chunk at a time: one read, one conditional update per target status
+    @Query("SELECT new com.gallerio.dto.OrderStatusSnapshot(o.id, o.paymentStatus, a.id, a.user.id) " +
+           "FROM Order o JOIN o.artwork a WHERE o.id IN :ids")
+    List<OrderStatusSnapshot> findStatusSnapshots(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.paymentStatus = :status, o.statusChangeId = :changeId " +
+           "WHERE o.id IN :ids AND o.paymentStatus = com.gallerio.model.Order.PaymentStatus.PENDING_PAYMENT")
+    int updateStatusIfPendingIn(@Param("ids") Collection<Long> ids, @Param("status") Order.PaymentStatus status,
+                                @Param("changeId") String changeId);
+
+    // Exactly the rows one status update moved, even when a concurrent update moved others the same way
+    @Query("SELECT o.id FROM Order o WHERE o.statusChangeId = :changeId")
+    List<Long> findIdsByStatusChangeId(@Param("changeId") String changeId);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.paymentStatus = com.gallerio.model.Order.PaymentStatus.EXPIRED, " +
+           "o.statusChangeId = :changeId " +
+           "WHERE o.artwork.id IN :artworkIds " +
+           "AND o.paymentStatus = com.gallerio.model.Order.PaymentStatus.PENDING_PAYMENT AND o.expiresAt <= :now")
+    int expirePendingForArtworks(@Param("artworkIds") List<Long> artworkIds, @Param("now") LocalDateTime now,
+                                 @Param("changeId") String changeId);
 } 
\ No newline at end of file
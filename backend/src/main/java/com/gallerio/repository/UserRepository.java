@@ -1,10 +1,16 @@
 package com.gallerio.repository;
 
+import com.gallerio.dto.ArtistDirectoryEntry;
+import com.gallerio.dto.UserSuggestionDTO;
 import com.gallerio.model.User;
 import com.gallerio.model.Role;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,7 +22,42 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     List<User> findByRole(Role role);
     boolean existsByEmail(String email);
-    List<User> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(String firstName, String lastName);
+
+    String SUGGESTION_SELECT = "SELECT new com.gallerio.dto.UserSuggestionDTO(u.id, u.firstName, u.lastName, u.avatarHash) " +
+            "FROM User u ";
+
+    // Keyset scan used to load the typeahead index without materialising whole User rows
+    @Query(SUGGESTION_SELECT + "WHERE u.id > :afterId ORDER BY u.id")
+    List<UserSuggestionDTO> findSuggestionsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(SUGGESTION_SELECT + "WHERE u.id = :userId")
+    Optional<UserSuggestionDTO> findSuggestionById(@Param("userId") Long userId);
+
+    // Artist directory: per-artist artwork count and newest thumbnail in one grouped statement. The thumbnail
+    // subquery is correlated, but PostgreSQL evaluates it only for the rows that survive ORDER BY/LIMIT.
+    String ARTIST_DIRECTORY_SELECT = "SELECT new com.gallerio.dto.ArtistDirectoryEntry(" +
+            "u.id, u.firstName, u.lastName, u.location, u.avatarHash, COUNT(a.id), " +
+            "(SELECT COALESCE(n.thumbnailUrl, n.imageUrl) FROM Artwork n WHERE n.user.id = u.id " +
+            "ORDER BY n.createdAt DESC, n.id DESC LIMIT 1)) " +
+            "FROM User u LEFT JOIN Artwork a ON a.user.id = u.id " +
+            "WHERE u.role = com.gallerio.model.Role.ARTIST " +
+            "GROUP BY u.id, u.firstName, u.lastName, u.location, u.avatarHash ";
+
+    String ARTIST_COUNT = "SELECT COUNT(u) FROM User u WHERE u.role = com.gallerio.model.Role.ARTIST";
+
+    @Query(value = ARTIST_DIRECTORY_SELECT + "ORDER BY LOWER(u.lastName), LOWER(u.firstName), u.id",
+            countQuery = ARTIST_COUNT)
+    Page<ArtistDirectoryEntry> findArtistDirectoryByName(Pageable pageable);
+
+    // Users carry no registration timestamp; ids are assigned in sign-up order
+    @Query(value = ARTIST_DIRECTORY_SELECT + "ORDER BY u.id DESC", countQuery = ARTIST_COUNT)
+    Page<ArtistDirectoryEntry> findArtistDirectoryByNewest(Pageable pageable);
+
+    @Query(value = ARTIST_DIRECTORY_SELECT + "ORDER BY COUNT(a.id) DESC, u.id", countQuery = ARTIST_COUNT)
+    Page<ArtistDirectoryEntry> findArtistDirectoryByArtworkCount(Pageable pageable);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :userId")
+    Optional<Integer> findTokenVersionById(@Param("userId") Long userId);
     
     @Modifying
     @Transactional
@@ -1,5 +1,6 @@
 package com.gallerio.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,12 +19,20 @@ import java.io.IOException;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // The only endpoint that accepts the token as a query parameter, since browsers' EventSource cannot send headers
+    public static final String MESSAGE_STREAM_PATH = "/api/messages/stream";
+
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, UserDetailsService userDetailsService,
+                                   PrincipalCache principalCache, TokenVersionRegistry tokenVersionRegistry) {
         this.tokenProvider = tokenProvider;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.tokenVersionRegistry = tokenVersionRegistry;
     }
 
     @Override
@@ -33,16 +42,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = getJwtFromRequest(request);
 
             if (StringUtils.hasText(jwt)) {
-                if (tokenProvider.validateToken(jwt)) {
-                    String username = tokenProvider.getUsernameFromJWT(jwt);
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    
-                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                Claims claims = tokenProvider.parseValidatedClaims(jwt);
+                if (claims != null) {
+                    String username = claims.getSubject();
+                    UserDetails userDetails = resolvePrincipal(claims);
+
+                    if (userDetails != null) {
+                        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                                userDetails, null, userDetails.getAuthorities());
+                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                    log.debug("Set authentication for user: {}", username);
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                        log.debug("Set authentication for user: {}", username);
+                    } else {
+                        log.warn("Revoked JWT token found in request for user: {}", username);
+                    }
                 } else {
                     log.warn("Invalid JWT token found in request");
                 }
@@ -55,11 +69,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolvePrincipal(Claims claims) {
+        AuthenticatedUser selfContained = tokenProvider.getSelfContainedPrincipal(claims);
+        if (selfContained != null) {
+            // No user lookup: only the per-user token version is checked, and that is cached
+            boolean current = tokenVersionRegistry.isCurrent(selfContained.getId(), tokenProvider.getTokenVersion(claims));
+            return current ? selfContained : null;
+        }
+
+        long issuedAt = claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L;
+        return principalCache.get(claims.getSubject(), issuedAt, userDetailsService::loadUserByUsername);
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
             return bearerToken.substring(7);
         }
+        if (MESSAGE_STREAM_PATH.equals(request.getServletPath()) && "GET".equals(request.getMethod())) {
+            return request.getParameter("access_token");
+        }
         return null;
     }
 } 
\ No newline at end of file
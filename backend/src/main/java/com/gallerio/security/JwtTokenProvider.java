@@ -1,7 +1,10 @@
 package com.gallerio.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -23,8 +26,31 @@ public class JwtTokenProvider {
     @Value("${app.jwt-expiration-milliseconds}")
     private int jwtExpirationInMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // Size of the LRU of recently verified tokens; 0 verifies every token's signature
+    @Value("${app.jwt.verified-token-cache-size:0}")
+    private int verifiedTokenCacheSize;
+
+    // Embed id, role, display name and token version so the filter can skip the user lookup
+    @Value("${app.jwt.self-contained:false}")
+    private boolean selfContained;
+
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_NAME = "name";
+    private static final String CLAIM_TOKEN_VERSION = "tv";
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private Cache<String, Claims> verifiedTokens;
+
+    // The key and parser are immutable and thread-safe, so they are built once instead of per call
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        if (verifiedTokenCacheSize > 0) {
+            verifiedTokens = Caffeine.newBuilder().maximumSize(verifiedTokenCacheSize).build();
+        }
     }
 
     public String generateToken(Authentication authentication) {
@@ -40,12 +66,17 @@ public class JwtTokenProvider {
         Date currentDate = new Date();
         Date expireDate = new Date(currentDate.getTime() + jwtExpirationInMs);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(user.getEmail())
                 .setIssuedAt(currentDate)
-                .setExpiration(expireDate)
-                .signWith(getSigningKey())
-                .compact();
+                .setExpiration(expireDate);
+        if (selfContained) {
+            builder.claim(CLAIM_USER_ID, user.getId())
+                    .claim(CLAIM_ROLE, user.getRole().name())
+                    .claim(CLAIM_NAME, user.getFirstName() + " " + user.getLastName())
+                    .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+        }
+        return builder.signWith(signingKey).compact();
     }
 
     private String generateTokenFromUserDetails(UserDetails userDetails) {
@@ -56,35 +87,68 @@ public class JwtTokenProvider {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(currentDate)
                 .setExpiration(expireDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getUsernameFromJWT(String token) {
-        try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            return claims.getSubject();
-        } catch (Exception e) {
-            log.error("Error getting username from JWT token: {}", e.getMessage());
-            throw new JwtException("Error getting username from JWT token");
+    /**
+     * Verifies the token once and returns its claims, or null if it is malformed, forged or expired.
+     * Callers should use the returned claims instead of parsing the token again.
+     */
+    public Claims parseValidatedClaims(String token) {
+        if (verifiedTokens != null) {
+            Claims cached = verifiedTokens.getIfPresent(token);
+            if (cached != null) {
+                if (cached.getExpiration() == null || cached.getExpiration().after(new Date())) {
+                    return cached;
+                }
+                verifiedTokens.invalidate(token);
+                log.error("Invalid JWT token: token expired");
+                return null;
+            }
         }
-    }
 
-    public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
-            return true;
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            if (verifiedTokens != null) {
+                verifiedTokens.put(token, claims);
+            }
+            return claims;
         } catch (JwtException ex) {
             log.error("Invalid JWT token: {}", ex.getMessage());
-            return false;
+            return null;
         } catch (Exception ex) {
             log.error("Error validating JWT token: {}", ex.getMessage());
-            return false;
+            return null;
+        }
+    }
+
+    // Principal carried by a self-contained token, or null when the mode is off or the token predates it
+    public AuthenticatedUser getSelfContainedPrincipal(Claims claims) {
+        if (!selfContained) {
+            return null;
+        }
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null || claims.get(CLAIM_TOKEN_VERSION) == null) {
+            return null;
+        }
+        return new AuthenticatedUser(userId.longValue(), claims.getSubject(), role, claims.get(CLAIM_NAME, String.class));
+    }
+
+    public int getTokenVersion(Claims claims) {
+        return claims.get(CLAIM_TOKEN_VERSION, Number.class).intValue();
+    }
+
+    public String getUsernameFromJWT(String token) {
+        Claims claims = parseValidatedClaims(token);
+        if (claims == null) {
+            throw new JwtException("Error getting username from JWT token");
         }
+        return claims.getSubject();
+    }
+
+    public boolean validateToken(String token) {
+        return parseValidatedClaims(token) != null;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,63 @@
+package com.gallerio.security;
+
+import com.gallerio.service.InvalidationBus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-evicting cache of the principals loaded by JwtAuthenticationFilter, so an authenticated
+ * request does not need a users SELECT each time. Entries are keyed by subject plus the token's issued-at,
+ * and hit/miss/eviction counts are published as the "principals" cache metrics.
+ */
+@Slf4j
+@Component
+public class PrincipalCache {
+
+    static final String REGION = "principals";
+
+    private final Cache<Key, UserDetails> cache;
+    private final InvalidationBus invalidationBus;
+
+    public PrincipalCache(@Value("${app.security.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${app.security.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                          MeterRegistry meterRegistry, InvalidationBus invalidationBus) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, REGION);
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(REGION, this::evict);
+    }
+
+    public UserDetails get(String username, long issuedAt, Function<String, UserDetails> loader) {
+        return cache.get(new Key(username, issuedAt), key -> loader.apply(key.username()));
+    }
+
+    // Drops every cached principal of the user on all nodes, once the current transaction commits
+    public void invalidate(String username) {
+        invalidationBus.publish(REGION, username);
+    }
+
+    private void evict(String username) {
+        if (InvalidationBus.ALL.equals(username)) {
+            cache.invalidateAll();
+            return;
+        }
+        cache.asMap().keySet().removeIf(key -> key.username().equals(username));
+        log.debug("Evicted cached principals for user: {}", username);
+    }
+
+    private record Key(String username, long issuedAt) {
+    }
+}
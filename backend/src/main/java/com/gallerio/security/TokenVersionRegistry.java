@@ -0,0 +1,61 @@
+package com.gallerio.security;
+
+import com.gallerio.repository.UserRepository;
+import com.gallerio.service.InvalidationBus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Current token version per user, used to revoke self-contained tokens. A token is only accepted while
+ * its "tv" claim equals the user's tokenVersion; bumping the column (password change or reset) or
+ * deleting the user invalidates every token issued before.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    static final String REGION = "tokenVersions";
+    private static final int REVOKED = -1;
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Integer> versions;
+    private final InvalidationBus invalidationBus;
+
+    public TokenVersionRegistry(UserRepository userRepository,
+                                @Value("${app.jwt.token-version-cache.max-size:100000}") long maxSize,
+                                @Value("${app.jwt.token-version-cache.ttl-seconds:600}") long ttlSeconds,
+                                MeterRegistry meterRegistry, InvalidationBus invalidationBus) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, REGION);
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(REGION, key -> {
+            if (InvalidationBus.ALL.equals(key)) {
+                versions.invalidateAll();
+            } else {
+                versions.invalidate(Long.valueOf(key));
+            }
+        });
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        int current = versions.get(userId, id -> userRepository.findTokenVersionById(id).orElse(REVOKED));
+        return current != REVOKED && current == tokenVersion;
+    }
+
+    // Revocations must reach every node, or a token would stay usable on the replicas that cached its version
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            invalidationBus.publish(REGION, userId.toString());
+        }
+    }
+}
@@ -1,22 +1,68 @@
 package com.gallerio.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gallerio.dto.AdminOrderFilter;
+import com.gallerio.dto.AdminOrderRow;
+import com.gallerio.dto.PageResponse;
 import com.gallerio.model.Order;
 import com.gallerio.model.User;
 import com.gallerio.model.Role;
 import com.gallerio.repository.OrderRepository;
 import com.gallerio.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class AdminService {
 
+    private static final String CSV_HEADER = "id,paymentStatus,paymentMethod,phoneNumber,createdAt,expiresAt," +
+            "artworkId,artworkTitle,price,artistId,artistFirstName,artistLastName," +
+            "customerId,customerFirstName,customerLastName,customerEmail\n";
+
     private final UserRepository userRepository;
     private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.admin.orders.max-page-size:200}")
+    private int maxOrderPageSize;
+
+    public enum ExportFormat {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
 
     public List<User> getUsersByRole(String role) {
         try {
@@ -27,15 +73,82 @@ public class AdminService {
         }
     }
 
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+    // Newest first; a page is one join plus one count, whatever the table size
+    public PageResponse<AdminOrderRow> getOrders(AdminOrderFilter filter, int page, int size) {
+        PageRequest pageable = PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, maxOrderPageSize)));
+        return PageResponse.of(orderRepository.findAdminOrders(filter.getStatus(), startOf(filter.getFrom()),
+                endOf(filter.getTo()), filter.getArtistId(), filter.getCustomerId(), pageable));
     }
 
-    @Transactional
+    /**
+     * Writes every matching order, newest first, as rows come off the database cursor. Only the writer's
+     * buffer and the driver's current fetch are held in memory, so the export size is unbounded.
+     */
+    @Transactional(readOnly = true)
+    public long exportOrders(AdminOrderFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long written = 0;
+        try (Stream<AdminOrderRow> rows = orderRepository.streamAdminOrders(filter.getStatus(),
+                startOf(filter.getFrom()), endOf(filter.getTo()), filter.getArtistId(), filter.getCustomerId())) {
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+            }
+            Iterator<AdminOrderRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                AdminOrderRow row = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsv(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+                written++;
+            }
+        }
+        writer.flush();
+        return written;
+    }
+
+    // The artwork's reservation moves with the order, so status changes go through OrderService
     public Order updateOrderStatus(Long orderId, String status) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-        order.setPaymentStatus(Order.PaymentStatus.valueOf(status));
-        return orderRepository.save(order);
+        return orderService.updatePaymentStatus(orderId, Order.PaymentStatus.valueOf(status));
+    }
+
+    private static LocalDateTime startOf(LocalDate from) {
+        return from == null ? null : from.atStartOfDay();
+    }
+
+    // The range is inclusive of its last day
+    private static LocalDateTime endOf(LocalDate to) {
+        return to == null ? null : to.plusDays(1).atStartOfDay();
+    }
+
+    private static void writeCsv(Writer writer, AdminOrderRow row) throws IOException {
+        Object[] values = {row.getId(), row.getPaymentStatus(), row.getPaymentMethod(), row.getPhoneNumber(),
+                row.getCreatedAt(), row.getExpiresAt(), row.getArtworkId(), row.getArtworkTitle(), row.getPrice(),
+                row.getArtistId(), row.getArtistFirstName(), row.getArtistLastName(), row.getCustomerId(),
+                row.getCustomerFirstName(), row.getCustomerLastName(), row.getCustomerEmail()};
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] instanceof String text) {
+                writer.write(csvText(text));
+            } else if (values[i] != null) {
+                writer.write(values[i].toString());
+            }
+        }
+        writer.write('\n');
+    }
+
+    // Quotes where needed, and defuses names a spreadsheet would otherwise evaluate as formulas
+    private static String csvText(String text) {
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
     }
-} 
\ No newline at end of file
+}
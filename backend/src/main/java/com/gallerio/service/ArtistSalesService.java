@@ -0,0 +1,159 @@
+package com.gallerio.service;
+
+import com.gallerio.dto.ArtistSalesBucket;
+import com.gallerio.dto.ArtistSalesStats;
+import com.gallerio.dto.ArtistTopArtwork;
+import com.gallerio.model.Order;
+import com.gallerio.model.User;
+import com.gallerio.repository.ArtistSalesDailyRepository;
+import com.gallerio.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Artist sales figures served from the artist_sales_daily rollup. Every statement that inserts orders or
+ * moves their payment status tags the rows it touched with a change id, and recordChange folds exactly
+ * those rows into the rollup in the same transaction. The nightly rebuild recomputes the rollup from the
+ * orders, correcting anything the increments cannot see, such as artwork price edits on legacy orders.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArtistSalesService {
+
+    public enum Period {
+        DAY, WEEK, MONTH
+    }
+
+    private final ArtistSalesDailyRepository salesRepository;
+    private final UserRepository userRepository;
+
+    @Value("${app.orders.stats.max-days:731}")
+    private long maxDays;
+
+    @Value("${app.orders.stats.top-artworks:5}")
+    private int topArtworks;
+
+    // LOCK TABLE is PostgreSQL syntax; the in-memory test database runs without it
+    @Value("${app.orders.stats.lock-on-rebuild:true}")
+    private boolean lockOnRebuild;
+
+    public static String newChangeId() {
+        return UUID.randomUUID().toString();
+    }
+
+    // from is null for newly placed orders. Runs in the transaction that tagged the orders with changeId
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(String changeId, Order.PaymentStatus from, Order.PaymentStatus to) {
+        if (from == null) {
+            salesRepository.insertMissingForChange(changeId);
+        }
+        salesRepository.applyChange(changeId,
+                delta(Order.PaymentStatus.PENDING_PAYMENT, from, to),
+                delta(Order.PaymentStatus.PAID, from, to),
+                delta(Order.PaymentStatus.EXPIRED, from, to),
+                delta(Order.PaymentStatus.PAID, from, to));
+    }
+
+    private static long delta(Order.PaymentStatus column, Order.PaymentStatus from, Order.PaymentStatus to) {
+        return (column == to ? 1 : 0) - (column == from ? 1 : 0);
+    }
+
+    // Defaults to the last 30 days, 12 weeks or 12 months up to today
+    @Transactional(readOnly = true)
+    public ArtistSalesStats getStats(String artistEmail, String period, LocalDate from, LocalDate to) {
+        Period grain = parsePeriod(period);
+        User artist = userRepository.findByEmail(artistEmail)
+                .orElseThrow(() -> new RuntimeException("Artist not found"));
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : switch (grain) {
+            case DAY -> end.minusDays(29);
+            case WEEK -> bucketStart(end.minusWeeks(11), Period.WEEK);
+            case MONTH -> bucketStart(end.minusMonths(11), Period.MONTH);
+        };
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= maxDays) {
+            throw new IllegalArgumentException("Date range must be at most " + maxDays + " days");
+        }
+
+        Map<LocalDate, ArtistSalesBucket> buckets = new LinkedHashMap<>();
+        double revenue = 0;
+        long pending = 0;
+        long paid = 0;
+        long expired = 0;
+        // Days arrive in order, so each week or month is filled contiguously
+        for (ArtistSalesBucket day : salesRepository.findDailyTotals(artist.getId(), start, end)) {
+            ArtistSalesBucket bucket = buckets.computeIfAbsent(bucketStart(day.getPeriodStart(), grain),
+                    periodStart -> new ArtistSalesBucket(periodStart, 0, 0, 0, 0));
+            bucket.setRevenue(bucket.getRevenue() + day.getRevenue());
+            bucket.setPendingCount(bucket.getPendingCount() + day.getPendingCount());
+            bucket.setPaidCount(bucket.getPaidCount() + day.getPaidCount());
+            bucket.setExpiredCount(bucket.getExpiredCount() + day.getExpiredCount());
+            revenue += day.getRevenue();
+            pending += day.getPendingCount();
+            paid += day.getPaidCount();
+            expired += day.getExpiredCount();
+        }
+
+        Map<String, Long> ordersByStatus = new LinkedHashMap<>();
+        ordersByStatus.put(Order.PaymentStatus.PENDING_PAYMENT.name(), pending);
+        ordersByStatus.put(Order.PaymentStatus.PAID.name(), paid);
+        ordersByStatus.put(Order.PaymentStatus.EXPIRED.name(), expired);
+        List<ArtistTopArtwork> top = salesRepository.findTopArtworks(artist.getId(), start, end, Limit.of(topArtworks));
+        return new ArtistSalesStats(grain.name(), start, end, revenue, ordersByStatus,
+                new ArrayList<>(buckets.values()), top);
+    }
+
+    private static Period parsePeriod(String period) {
+        if (period == null) {
+            return Period.DAY;
+        }
+        try {
+            return Period.valueOf(period.strip().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("period must be day, week or month");
+        }
+    }
+
+    private static LocalDate bucketStart(LocalDate day, Period grain) {
+        return switch (grain) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * Recomputes the whole rollup from the orders in one transaction. On PostgreSQL the table lock makes
+     * order writers wait for the new rows, so no increment is lost or counted twice across the swap.
+     */
+    @Scheduled(cron = "${app.orders.stats.rebuild-cron:0 30 3 * * *}")
+    @Transactional
+    public int rebuild() {
+        if (lockOnRebuild) {
+            salesRepository.lockForRebuild();
+        }
+        salesRepository.deleteAllRows();
+        int rows = salesRepository.insertFromOrders();
+        log.info("Rebuilt artist sales rollup with {} rows", rows);
+        return rows;
+    }
+}
@@ -0,0 +1,316 @@
+package com.gallerio.service;
+
+import com.gallerio.dto.DerivativeBackfillStatus;
+import com.gallerio.event.ArtworkChangedEvent;
+import com.gallerio.repository.ArtworkRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Generates thumbnail, medium and large JPEG variants of artwork originals after the artwork is committed.
+ * Work runs on a small fixed pool with a bounded queue, so decoded images never pile up in memory. When the
+ * queue is full a change event's job is dropped rather than run on the committing request thread; the artwork
+ * keeps no variants and the resumable backfill picks it up. The backfill itself waits for room in the queue.
+ */
+@Slf4j
+@Service
+public class ArtworkDerivativeService {
+
+    public static final String UPLOAD_URL_PREFIX = "/uploads/";
+    private static final String DERIVED_DIR = "derived";
+    private static final long BACKFILL_RETRY_MILLIS = 200;
+
+    enum Variant {
+        LARGE("large", 1920),
+        MEDIUM("medium", 960),
+        THUMBNAIL("thumb", 320);
+
+        private final String suffix;
+        private final int maxEdge;
+
+        Variant(String suffix, int maxEdge) {
+            this.suffix = suffix;
+            this.maxEdge = maxEdge;
+        }
+    }
+
+    private final ArtworkRepository artworkRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+    private final AtomicLong backfillQueued = new AtomicLong();
+    private final AtomicLong backfillGenerated = new AtomicLong();
+    private final AtomicLong backfillFailed = new AtomicLong();
+    private final AtomicLong backfillLastId = new AtomicLong();
+
+    @Value("${app.upload.dir:uploads}")
+    private String uploadDir;
+
+    @Value("${app.derivatives.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    @Value("${app.derivatives.backfill-batch-size:100}")
+    private int backfillBatchSize;
+
+    public ArtworkDerivativeService(ArtworkRepository artworkRepository,
+                                    ApplicationEventPublisher eventPublisher,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.derivatives.workers:2}") int workers,
+                                    @Value("${app.derivatives.queue-capacity:32}") int queueCapacity) {
+        this.artworkRepository = artworkRepository;
+        this.eventPublisher = eventPublisher;
+        // Own transactions: generate() may be reached from a caller whose transaction has already committed
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "artwork-derivatives-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    // Derived file URLs are a pure function of the original's URL, so a changed image never reuses stale variants
+    public static String variantUrl(String imageUrl, String suffix) {
+        String name = imageUrl.substring(imageUrl.lastIndexOf('/') + 1);
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return UPLOAD_URL_PREFIX + DERIVED_DIR + "/" + base + "-" + suffix + ".jpg";
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onArtworkChanged(ArtworkChangedEvent event) {
+        if ((event.type() == ArtworkChangedEvent.Type.CREATED || event.type() == ArtworkChangedEvent.Type.UPDATED)
+                && !submit(event.artworkId(), null)) {
+            log.warn("Derivative queue is full; artwork {} is left for the backfill", event.artworkId());
+        }
+    }
+
+    public DerivativeBackfillStatus startBackfill(long afterId) {
+        if (backfillRunning.compareAndSet(false, true)) {
+            backfillQueued.set(0);
+            backfillGenerated.set(0);
+            backfillFailed.set(0);
+            backfillLastId.set(afterId);
+            Thread thread = new Thread(this::runBackfill, "artwork-derivatives-backfill");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return getBackfillStatus();
+    }
+
+    public DerivativeBackfillStatus getBackfillStatus() {
+        return new DerivativeBackfillStatus(backfillRunning.get(), backfillQueued.get(), backfillGenerated.get(),
+                backfillFailed.get(), backfillLastId.get());
+    }
+
+    private void runBackfill() {
+        try {
+            while (true) {
+                long afterId = backfillLastId.get();
+                List<Long> ids = transactionTemplate.execute(status ->
+                        artworkRepository.findIdsMissingVariants(afterId, Limit.of(backfillBatchSize)));
+                if (ids == null || ids.isEmpty()) {
+                    break;
+                }
+                for (Long id : ids) {
+                    // Waits while the pool is saturated, so the scan never races ahead of the workers
+                    while (!submit(id, success -> (success ? backfillGenerated : backfillFailed).incrementAndGet())) {
+                        Thread.sleep(BACKFILL_RETRY_MILLIS);
+                    }
+                    backfillQueued.incrementAndGet();
+                    backfillLastId.set(id);
+                }
+            }
+            log.info("Derivative backfill scanned up to artwork {}: {} queued", backfillLastId.get(), backfillQueued.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Derivative backfill interrupted after artwork {}", backfillLastId.get());
+        } catch (RuntimeException e) {
+            log.error("Derivative backfill stopped after artwork {}", backfillLastId.get(), e);
+        } finally {
+            backfillRunning.set(false);
+        }
+    }
+
+    // False when the queue is full
+    private boolean submit(Long artworkId, Consumer<Boolean> onDone) {
+        try {
+            executor.execute(() -> {
+                boolean success = false;
+                try {
+                    success = generate(artworkId);
+                } catch (Exception e) {
+                    log.warn("Failed to generate variants for artwork {}: {}", artworkId, e.getMessage());
+                }
+                if (onDone != null) {
+                    onDone.accept(success);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    // Returns true once all variants are written and recorded on the artwork
+    public boolean generate(Long artworkId) throws IOException {
+        String imageUrl = transactionTemplate.execute(status ->
+                artworkRepository.findImageUrlById(artworkId).orElse(null));
+        if (imageUrl == null || !imageUrl.startsWith(UPLOAD_URL_PREFIX)) {
+            return false;
+        }
+        // Edits that keep the image (title, price, status) leave variants that are still current
+        if (Boolean.TRUE.equals(transactionTemplate.execute(status -> artworkRepository.existsByIdAndThumbnailUrl(
+                artworkId, variantUrl(imageUrl, Variant.THUMBNAIL.suffix))))) {
+            return true;
+        }
+        Path original = Paths.get(uploadDir).resolve(imageUrl.substring(UPLOAD_URL_PREFIX.length()));
+        if (!Files.isRegularFile(original)) {
+            log.warn("Original image for artwork {} is missing: {}", artworkId, original);
+            return false;
+        }
+
+        BufferedImage image = readForMaxEdge(original, Variant.LARGE.maxEdge);
+        Path derivedDir = Paths.get(uploadDir).resolve(DERIVED_DIR);
+        Files.createDirectories(derivedDir);
+        // Largest first; each smaller variant is scaled from the previous one rather than from the original
+        for (Variant variant : Variant.values()) {
+            image = scaleToMaxEdge(image, variant.maxEdge);
+            String url = variantUrl(imageUrl, variant.suffix);
+            writeJpeg(image, derivedDir.resolve(url.substring(url.lastIndexOf('/') + 1)));
+        }
+
+        Integer updated = transactionTemplate.execute(status -> artworkRepository.updateVariants(artworkId, imageUrl,
+                variantUrl(imageUrl, Variant.THUMBNAIL.suffix),
+                variantUrl(imageUrl, Variant.MEDIUM.suffix),
+                variantUrl(imageUrl, Variant.LARGE.suffix)));
+        if (updated == null || updated == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(new ArtworkChangedEvent(artworkId, null, ArtworkChangedEvent.Type.VARIANTS_GENERATED));
+        return true;
+    }
+
+    // Decodes with source subsampling so a 200MB TIFF is never fully materialised at native resolution
+    private static BufferedImage readForMaxEdge(Path file, int maxEdge) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestEdge = Math.max(reader.getWidth(0), reader.getHeight(0));
+                // Keep at least twice the target resolution so the final resample still has detail to average
+                int step = Math.max(1, longestEdge / (maxEdge * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scaleToMaxEdge(BufferedImage source, int maxEdge) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        if (Math.max(width, height) <= maxEdge && source.getType() == BufferedImage.TYPE_INT_RGB) {
+            return source;
+        }
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        // Halve repeatedly with bilinear filtering; one big bilinear step aliases badly
+        BufferedImage current = source;
+        do {
+            int nextWidth = Math.max(targetWidth, current.getWidth() / 2);
+            int nextHeight = Math.max(targetHeight, current.getHeight() / 2);
+            BufferedImage next = new BufferedImage(nextWidth, nextHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                // JPEG has no alpha; flatten transparent originals onto white rather than black
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, nextWidth, nextHeight);
+                graphics.drawImage(current, 0, 0, nextWidth, nextHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (current.getWidth() != targetWidth || current.getHeight() != targetHeight);
+        return current;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(jpegQuality);
+        param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+
+        Path tempFile = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(tempFile.toFile())) {
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package com.gallerio.service;
+
+import com.gallerio.dto.ArtworkDTO;
+import com.gallerio.dto.ArtworkSearchResponse;
+import com.gallerio.event.ArtworkChangedEvent;
+import com.gallerio.event.UserChangedEvent;
+import com.gallerio.repository.ArtworkRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoubleDocValuesField;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsCollectorManager;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.range.DoubleRange;
+import org.apache.lucene.facet.range.DoubleRangeFacetCounts;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory Lucene index over artwork listings. Rebuilt from the database at startup and kept current on every node
+ * through the InvalidationBus after each commit; searches, ranking and facet counts never touch the database.
+ */
+@Slf4j
+@Service
+public class ArtworkSearchService {
+
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+    private static final String CATEGORY = "category";
+    private static final String CATEGORY_TEXT = "categoryText";
+    private static final String ARTIST = "artistName";
+    private static final String PRICE = "price";
+
+    private static final String ARTWORK_REGION = "search.artworks";
+    private static final String ARTIST_REGION = "search.artists";
+
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(
+            TITLE, 3.0f, ARTIST, 2.0f, CATEGORY_TEXT, 1.5f, DESCRIPTION, 1.0f);
+
+    private static final DoubleRange[] PRICE_BUCKETS = {
+            new DoubleRange("Under 100", 0, true, 100, false),
+            new DoubleRange("100 - 500", 100, true, 500, false),
+            new DoubleRange("500 - 1000", 500, true, 1000, false),
+            new DoubleRange("1000 - 5000", 1000, true, 5000, false),
+            new DoubleRange("5000 and up", 5000, true, Double.POSITIVE_INFINITY, true)
+    };
+
+    private final ArtworkRepository artworkRepository;
+    private final InvalidationBus invalidationBus;
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+    private final ByteBuffersDirectory directory = new ByteBuffersDirectory();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    // Ordinal state for category facets is tied to one reader; rebuilt lazily after a refresh
+    private volatile SortedSetDocValuesReaderState facetState;
+
+    // Serialises writes, so no refresh publishes a half-built index and no update interleaves with a rebuild
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // Full rebuilds requested through ALL run here after a short delay, so the ALL a reconnecting listener
+    // delivers to each region in turn is served by one rebuild
+    private final ScheduledExecutorService rebuildScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "artwork-search-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    @Value("${app.search.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.search.max-result-window:10000}")
+    private int maxResultWindow;
+
+    @Value("${app.search.rebuild-debounce-ms:1000}")
+    private long rebuildDebounceMillis;
+
+    public ArtworkSearchService(ArtworkRepository artworkRepository, InvalidationBus invalidationBus)
+            throws IOException {
+        this.artworkRepository = artworkRepository;
+        this.invalidationBus = invalidationBus;
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+        invalidationBus.subscribe(ARTWORK_REGION, this::reindexArtwork);
+        invalidationBus.subscribe(ARTIST_REGION, this::reindexArtist);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        rebuildScheduler.shutdownNow();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            rebuildLocked();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Requests made before the scheduled rebuild starts share it; any made once it has started get another
+    private void scheduleRebuild() {
+        if (!rebuildScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        rebuildScheduler.schedule(() -> {
+            rebuildScheduled.set(false);
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Artwork search rebuild failed", e);
+            }
+        }, rebuildDebounceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void rebuildLocked() {
+        long started = System.currentTimeMillis();
+        try {
+            writer.deleteAll();
+            int indexed = 0;
+            List<ArtworkDTO> page = artworkRepository.findCatalogFirstPage(null, null, null, null, Limit.of(500));
+            while (!page.isEmpty()) {
+                for (ArtworkDTO artwork : page) {
+                    writer.addDocument(toDocument(artwork));
+                }
+                indexed += page.size();
+                ArtworkDTO last = page.get(page.size() - 1);
+                page = artworkRepository.findCatalogPageAfter(null, null, null, null,
+                        last.getCreatedAt(), last.getId(), Limit.of(500));
+            }
+            searcherManager.maybeRefreshBlocking();
+            log.info("Indexed {} artworks for search in {} ms", indexed, System.currentTimeMillis() - started);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to build artwork search index", e);
+        }
+    }
+
+    // Every node reindexes from the database once the change has committed
+    @EventListener
+    public void onArtworkChanged(ArtworkChangedEvent event) {
+        invalidationBus.publish(ARTWORK_REGION, event.artworkId().toString());
+    }
+
+    // The artist name is denormalised into every artwork document
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.type() == UserChangedEvent.Type.UPDATED) {
+            invalidationBus.publish(ARTIST_REGION, event.userId().toString());
+        }
+    }
+
+    private void reindexArtwork(String key) {
+        if (InvalidationBus.ALL.equals(key)) {
+            scheduleRebuild();
+            return;
+        }
+        Long artworkId = Long.valueOf(key);
+        artworkRepository.findListingById(artworkId)
+                .ifPresentOrElse(this::index, () -> remove(artworkId));
+    }
+
+    private void reindexArtist(String key) {
+        if (InvalidationBus.ALL.equals(key)) {
+            scheduleRebuild();
+            return;
+        }
+        artworkRepository.findListingsByUserId(Long.valueOf(key)).forEach(this::index);
+    }
+
+    public void index(ArtworkDTO artwork) {
+        writeLock.lock();
+        try {
+            writer.updateDocument(new Term(ID, artwork.getId().toString()), toDocument(artwork));
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Long artworkId) {
+        writeLock.lock();
+        try {
+            writer.deleteDocuments(new Term(ID, artworkId.toString()));
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public ArtworkSearchResponse search(String text, String category, Double minPrice, Double maxPrice,
+                                        int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        int pageNumber = Math.max(0, page);
+        if ((long) (pageNumber + 1) * pageSize > maxResultWindow) {
+            throw new IllegalArgumentException("Result window is too large");
+        }
+
+        Query query = buildQuery(text, category, minPrice, maxPrice);
+        IndexSearcher searcher;
+        try {
+            searcher = searcherManager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            FacetsCollectorManager.FacetsResult result = FacetsCollectorManager.search(searcher, query,
+                    (pageNumber + 1) * pageSize, new FacetsCollectorManager());
+            TopDocs topDocs = result.topDocs();
+            FacetsCollector facetsCollector = result.facetsCollector();
+
+            List<ArtworkDTO> items = new ArrayList<>(pageSize);
+            StoredFields storedFields = searcher.storedFields();
+            ScoreDoc[] hits = topDocs.scoreDocs;
+            for (int i = pageNumber * pageSize; i < hits.length; i++) {
+                items.add(fromDocument(storedFields.document(hits[i].doc)));
+            }
+
+            long totalHits = facetsCollector.getMatchingDocs().stream().mapToLong(m -> m.totalHits).sum();
+            return new ArtworkSearchResponse(items, totalHits, pageNumber, pageSize,
+                    categoryFacets(searcher.getIndexReader(), facetsCollector), priceFacets(facetsCollector));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            try {
+                searcherManager.release(searcher);
+            } catch (IOException e) {
+                log.warn("Failed to release searcher: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Query buildQuery(String text, String category, Double minPrice, Double maxPrice) {
+        Query textQuery;
+        if (text == null || text.isBlank()) {
+            textQuery = new MatchAllDocsQuery();
+        } else {
+            MultiFieldQueryParser parser = new MultiFieldQueryParser(
+                    FIELD_BOOSTS.keySet().toArray(new String[0]), analyzer, FIELD_BOOSTS);
+            parser.setDefaultOperator(QueryParser.Operator.AND);
+            try {
+                textQuery = parser.parse(text);
+            } catch (ParseException e) {
+                // Unbalanced quotes and the like: search the literal words instead of failing
+                try {
+                    textQuery = parser.parse(QueryParser.escape(text));
+                } catch (ParseException escaped) {
+                    throw new IllegalArgumentException("Invalid search query");
+                }
+            }
+        }
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder().add(textQuery, BooleanClause.Occur.MUST);
+        if (category != null && !category.isBlank()) {
+            builder.add(new TermQuery(new Term(CATEGORY, category)), BooleanClause.Occur.FILTER);
+        }
+        if (minPrice != null || maxPrice != null) {
+            builder.add(DoublePoint.newRangeQuery(PRICE,
+                    minPrice != null ? minPrice : Double.NEGATIVE_INFINITY,
+                    maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY), BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    private Map<String, Long> categoryFacets(IndexReader reader, FacetsCollector facetsCollector) throws IOException {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (reader.numDocs() == 0) {
+            return counts;
+        }
+        SortedSetDocValuesReaderState state = facetState;
+        if (state == null || state.getReader() != reader) {
+            state = new DefaultSortedSetDocValuesReaderState(reader, facetsConfig);
+            facetState = state;
+        }
+        FacetResult result = new SortedSetDocValuesFacetCounts(state, facetsCollector).getTopChildren(100, CATEGORY);
+        if (result != null) {
+            for (LabelAndValue labelAndValue : result.labelValues) {
+                counts.put(labelAndValue.label, labelAndValue.value.longValue());
+            }
+        }
+        return counts;
+    }
+
+    private static Map<String, Long> priceFacets(FacetsCollector facetsCollector) throws IOException {
+        FacetResult result = new DoubleRangeFacetCounts(PRICE, facetsCollector, PRICE_BUCKETS).getAllChildren(PRICE);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (LabelAndValue labelAndValue : result.labelValues) {
+            counts.put(labelAndValue.label, labelAndValue.value.longValue());
+        }
+        return counts;
+    }
+
+    private Document toDocument(ArtworkDTO artwork) throws IOException {
+        Document document = new Document();
+        document.add(new StringField(ID, artwork.getId().toString(), Field.Store.YES));
+        document.add(new TextField(TITLE, nullToEmpty(artwork.getTitle()), Field.Store.YES));
+        document.add(new TextField(DESCRIPTION, nullToEmpty(artwork.getDescription()), Field.Store.YES));
+        document.add(new TextField(ARTIST, nullToEmpty(artwork.getArtistName()), Field.Store.YES));
+        if (artwork.getCategory() != null) {
+            document.add(new StringField(CATEGORY, artwork.getCategory(), Field.Store.YES));
+            document.add(new TextField(CATEGORY_TEXT, artwork.getCategory(), Field.Store.NO));
+            document.add(new SortedSetDocValuesFacetField(CATEGORY, artwork.getCategory()));
+        }
+        if (artwork.getPrice() != null) {
+            document.add(new DoublePoint(PRICE, artwork.getPrice()));
+            document.add(new DoubleDocValuesField(PRICE, artwork.getPrice()));
+            document.add(new StoredField(PRICE, artwork.getPrice()));
+        }
+        storeIfPresent(document, "imageUrl", artwork.getImageUrl());
+        storeIfPresent(document, "thumbnailUrl", artwork.getThumbnailUrl());
+        storeIfPresent(document, "mediumUrl", artwork.getMediumUrl());
+        storeIfPresent(document, "largeUrl", artwork.getLargeUrl());
+        storeIfPresent(document, "status", artwork.getStatus());
+        if (artwork.getUserId() != null) {
+            document.add(new StoredField("userId", artwork.getUserId()));
+        }
+        storeIfPresent(document, "createdAt", artwork.getCreatedAt() != null ? artwork.getCreatedAt().toString() : null);
+        storeIfPresent(document, "updatedAt", artwork.getUpdatedAt() != null ? artwork.getUpdatedAt().toString() : null);
+        return facetsConfig.build(document);
+    }
+
+    private static ArtworkDTO fromDocument(Document document) {
+        ArtworkDTO artwork = new ArtworkDTO();
+        artwork.setId(Long.valueOf(document.get(ID)));
+        artwork.setTitle(document.get(TITLE));
+        artwork.setDescription(document.get(DESCRIPTION));
+        artwork.setArtistName(document.get(ARTIST));
+        artwork.setCategory(document.get(CATEGORY));
+        if (document.getField(PRICE) != null) {
+            artwork.setPrice(document.getField(PRICE).numericValue().doubleValue());
+        }
+        artwork.setImageUrl(document.get("imageUrl"));
+        artwork.setThumbnailUrl(document.get("thumbnailUrl"));
+        artwork.setMediumUrl(document.get("mediumUrl"));
+        artwork.setLargeUrl(document.get("largeUrl"));
+        artwork.setStatus(document.get("status"));
+        if (document.getField("userId") != null) {
+            artwork.setUserId(document.getField("userId").numericValue().longValue());
+        }
+        if (document.get("createdAt") != null) {
+            artwork.setCreatedAt(LocalDateTime.parse(document.get("createdAt")));
+        }
+        if (document.get("updatedAt") != null) {
+            artwork.setUpdatedAt(LocalDateTime.parse(document.get("updatedAt")));
+        }
+        return artwork;
+    }
+
+    private static void storeIfPresent(Document document, String name, String value) {
+        if (value != null) {
+            document.add(new StoredField(name, value));
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
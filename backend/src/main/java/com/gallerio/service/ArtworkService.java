@@ -1,12 +1,15 @@
 package com.gallerio.service;
 
 import com.gallerio.dto.ArtworkDTO;
+import com.gallerio.dto.CursorPage;
 import java.util.List;
 
 public interface ArtworkService {
     ArtworkDTO createArtwork(ArtworkDTO artworkDTO);
     ArtworkDTO getArtwork(Long id);
     List<ArtworkDTO> getAllArtworks();
+    CursorPage<ArtworkDTO> getCatalogPage(String category, String status, Double minPrice, Double maxPrice,
+                                          String cursor, int limit);
     List<ArtworkDTO> getArtworksByUser(Long userId);
     ArtworkDTO updateArtwork(Long id, ArtworkDTO artworkDTO);
     void deleteArtwork(Long id);
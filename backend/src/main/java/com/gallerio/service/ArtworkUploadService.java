@@ -0,0 +1,15 @@
+package com.gallerio.service;
+
+import com.gallerio.dto.ArtworkDTO;
+import com.gallerio.dto.ArtworkUploadRequest;
+import com.gallerio.dto.ArtworkUploadStatus;
+
+import java.io.InputStream;
+
+public interface ArtworkUploadService {
+    ArtworkUploadStatus initUpload(String email, ArtworkUploadRequest request);
+    ArtworkUploadStatus writeChunk(String email, String uploadId, long offset, long length, InputStream data);
+    ArtworkUploadStatus getStatus(String email, String uploadId);
+    ArtworkDTO completeUpload(String email, String uploadId);
+    void abortUpload(String email, String uploadId);
+}
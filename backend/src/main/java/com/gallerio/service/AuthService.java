@@ -4,23 +4,19 @@ import com.gallerio.repository.UserRepository;
 import com.gallerio.dto.AuthResponse;
 import com.gallerio.dto.LoginRequest;
 import com.gallerio.dto.RegisterRequest;
+import com.gallerio.event.UserChangedEvent;
 import com.gallerio.model.Role;
 import com.gallerio.model.User;
 import com.gallerio.security.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
-import java.util.Base64;
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -32,6 +28,8 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
+    private final AvatarStorageService avatarStorageService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -57,37 +55,7 @@ public class AuthService {
         // Handle profile photo upload
         if (request.getProfilePhoto() != null && !request.getProfilePhoto().isEmpty()) {
             try {
-                // Read the image
-                BufferedImage originalImage = ImageIO.read(request.getProfilePhoto().getInputStream());
-                
-                // Calculate new dimensions while maintaining aspect ratio
-                int maxDimension = 200; // Maximum width or height
-                int originalWidth = originalImage.getWidth();
-                int originalHeight = originalImage.getHeight();
-                int newWidth = originalWidth;
-                int newHeight = originalHeight;
-                
-                if (originalWidth > maxDimension || originalHeight > maxDimension) {
-                    if (originalWidth > originalHeight) {
-                        newWidth = maxDimension;
-                        newHeight = (int) ((double) originalHeight / originalWidth * maxDimension);
-                    } else {
-                        newHeight = maxDimension;
-                        newWidth = (int) ((double) originalWidth / originalHeight * maxDimension);
-                    }
-                }
-                
-                // Create resized image
-                BufferedImage resizedImage = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_RGB);
-                resizedImage.createGraphics().drawImage(originalImage, 0, 0, newWidth, newHeight, null);
-                
-                // Convert to JPEG with compression
-                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-                ImageIO.write(resizedImage, "jpg", outputStream);
-                
-                // Convert to base64
-                String base64Image = Base64.getEncoder().encodeToString(outputStream.toByteArray());
-                user.setProfilePhoto(base64Image);
+                user.setAvatarHash(avatarStorageService.storeAvatar(request.getProfilePhoto()));
             } catch (IOException e) {
                 log.error("Error processing profile photo: {}", e.getMessage());
                 return AuthResponse.builder()
@@ -98,6 +66,7 @@ public class AuthService {
 
         // Save user
         user = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), UserChangedEvent.Type.CREATED));
 
         // Generate JWT token
         String token = jwtTokenProvider.generateToken(user);
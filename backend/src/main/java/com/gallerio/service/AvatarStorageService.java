@@ -0,0 +1,104 @@
+package com.gallerio.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+// Content-addressed avatar files: each image is stored once under the SHA-256 of its bytes
+@Service
+@Slf4j
+public class AvatarStorageService {
+
+    public static final String URL_PREFIX = "/media/avatars/";
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("^[0-9a-f]{64}$");
+    private static final int MAX_DIMENSION = 200;
+
+    @Value("${app.avatar.dir:uploads/avatars}")
+    private String avatarDir;
+
+    public static String urlFor(String hash) {
+        return hash != null ? URL_PREFIX + hash : null;
+    }
+
+    // Resizes the upload to at most 200px, re-encodes it as JPEG and returns the hash it is stored under
+    public String storeAvatar(MultipartFile file) throws IOException {
+        BufferedImage originalImage = ImageIO.read(file.getInputStream());
+        if (originalImage == null) {
+            throw new IOException("Unsupported image format");
+        }
+
+        // Calculate new dimensions while maintaining aspect ratio
+        int originalWidth = originalImage.getWidth();
+        int originalHeight = originalImage.getHeight();
+        int newWidth = originalWidth;
+        int newHeight = originalHeight;
+
+        if (originalWidth > MAX_DIMENSION || originalHeight > MAX_DIMENSION) {
+            if (originalWidth > originalHeight) {
+                newWidth = MAX_DIMENSION;
+                newHeight = (int) ((double) originalHeight / originalWidth * MAX_DIMENSION);
+            } else {
+                newHeight = MAX_DIMENSION;
+                newWidth = (int) ((double) originalWidth / originalHeight * MAX_DIMENSION);
+            }
+        }
+
+        BufferedImage resizedImage = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_RGB);
+        resizedImage.createGraphics().drawImage(originalImage, 0, 0, newWidth, newHeight, null);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(resizedImage, "jpg", outputStream);
+        return store(outputStream.toByteArray());
+    }
+
+    // Stores already-encoded JPEG bytes; identical content always maps to the same file
+    public String store(byte[] jpegBytes) throws IOException {
+        String hash = sha256(jpegBytes);
+        Path target = resolve(hash);
+        if (Files.exists(target)) {
+            return hash;
+        }
+
+        Files.createDirectories(target.getParent());
+        Path tempFile = Files.createTempFile(target.getParent(), hash, ".tmp");
+        try {
+            Files.write(tempFile, jpegBytes);
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        log.debug("Stored avatar {}", hash);
+        return hash;
+    }
+
+    public Path resolve(String hash) {
+        if (hash == null || !HASH_PATTERN.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid avatar hash");
+        }
+        // Two-character fan-out keeps directory sizes reasonable
+        return Paths.get(avatarDir).resolve(hash.substring(0, 2)).resolve(hash + ".jpg");
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.gallerio.service;
+
+import com.gallerio.config.CacheConfig;
+import com.gallerio.event.ArtworkChangedEvent;
+import com.gallerio.event.UserChangedEvent;
+import com.gallerio.repository.ArtworkRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts exactly the cache entries a change affects, on every node. Messages go out through the InvalidationBus
+ * from inside the writing transaction and are applied after the commit; evicting earlier would let a concurrent
+ * reader reload the old row and re-cache it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidator {
+
+    private final CacheManager cacheManager;
+    private final ArtworkRepository artworkRepository;
+    private final InvalidationBus invalidationBus;
+
+    @PostConstruct
+    void subscribe() {
+        invalidationBus.subscribe(CacheConfig.ARTWORKS, key -> evict(CacheConfig.ARTWORKS, key));
+        invalidationBus.subscribe(CacheConfig.ARTWORKS_BY_USER, key -> evict(CacheConfig.ARTWORKS_BY_USER, key));
+        invalidationBus.subscribe(CacheConfig.ARTISTS, key -> evictAll(CacheConfig.ARTISTS));
+    }
+
+    @EventListener
+    public void onArtworkChanged(ArtworkChangedEvent event) {
+        publish(CacheConfig.ARTWORKS, event.artworkId());
+
+        Long userId = event.userId();
+        if (userId == null) {
+            // Variant updates only carry the artwork id
+            userId = artworkRepository.findUserIdById(event.artworkId()).orElse(null);
+        }
+        publish(CacheConfig.ARTWORKS_BY_USER, userId);
+        publish(CacheConfig.ARTWORKS_BY_USER, event.previousUserId());
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        // Names and avatars appear in the artist directory and in every artwork's artistName
+        invalidationBus.publish(CacheConfig.ARTISTS, InvalidationBus.ALL);
+        publish(CacheConfig.ARTWORKS_BY_USER, event.userId());
+        artworkRepository.findIdsByUserId(event.userId())
+                .forEach(artworkId -> publish(CacheConfig.ARTWORKS, artworkId));
+    }
+
+    private void publish(String cacheName, Long id) {
+        if (id != null) {
+            invalidationBus.publish(cacheName, id.toString());
+        }
+    }
+
+    // Both id-keyed caches use Long keys
+    private void evict(String cacheName, String key) {
+        if (InvalidationBus.ALL.equals(key)) {
+            evictAll(cacheName);
+            return;
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(Long.valueOf(key));
+        }
+    }
+
+    private void evictAll(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
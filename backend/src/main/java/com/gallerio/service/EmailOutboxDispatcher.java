@@ -0,0 +1,181 @@
+package com.gallerio.service;
+
+import com.gallerio.model.EmailOutboxMessage;
+import com.gallerio.repository.EmailOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Background sender for the email outbox. Due rows are claimed in batches with SKIP LOCKED in a short
+ * transaction, each batch goes out over a single SMTP connection with no transaction open, and the outcomes
+ * are recorded in a second transaction. Failed messages are retried with exponential backoff and
+ * dead-lettered after the configured number of attempts.
+ */
+@Slf4j
+@Service
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${spring.mail.username:}")
+    private String from;
+
+    @Value("${app.mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${app.mail.outbox.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    // How long a claimed batch is left to its dispatcher before another may retry it
+    @Value("${app.mail.outbox.claim-lease-seconds:300}")
+    private long claimLeaseSeconds;
+
+    @Value("${app.mail.outbox.retention-days:7}")
+    private int retentionDays;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository, JavaMailSender mailSender,
+                                 PlatformTransactionManager transactionManager) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:2000}")
+    public void dispatchPending() {
+        // Keep draining while batches come back full
+        List<EmailOutboxMessage> batch;
+        do {
+            batch = transactionTemplate.execute(status -> claimBatch());
+            if (batch == null || batch.isEmpty()) {
+                return;
+            }
+            // SMTP I/O happens with no transaction open, so no row lock or pooled connection waits on it
+            Map<Long, Exception> failures = send(batch);
+            List<Long> ids = batch.stream().map(EmailOutboxMessage::getId).toList();
+            transactionTemplate.executeWithoutResult(status -> recordOutcomes(ids, failures));
+            log.debug("Dispatched outbox batch of {} ({} failed)", batch.size(), failures.size());
+        } while (batch.size() == batchSize);
+    }
+
+    @Scheduled(cron = "${app.mail.outbox.purge-cron:0 30 3 * * *}")
+    public void purgeSent() {
+        Integer deleted = transactionTemplate.execute(status ->
+                emailOutboxRepository.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays)));
+        log.info("Purged {} sent outbox messages", deleted);
+    }
+
+    // Leases the due rows: they stay PENDING but are not due again until the lease runs out, so other
+    // dispatchers skip them while this one sends, and a crash mid-send only delays them
+    private List<EmailOutboxMessage> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutboxMessage> batch = emailOutboxRepository.findDueForDispatch(now, Limit.of(batchSize));
+        for (EmailOutboxMessage message : batch) {
+            message.setNextAttemptAt(now.plusSeconds(claimLeaseSeconds));
+        }
+        return emailOutboxRepository.saveAll(batch);
+    }
+
+    // Failures keyed by outbox message id
+    private Map<Long, Exception> send(List<EmailOutboxMessage> batch) {
+        SimpleMailMessage[] mails = batch.stream().map(this::toMail).toArray(SimpleMailMessage[]::new);
+        Map<Object, Exception> failedMails;
+        try {
+            mailSender.send(mails);
+            return Collections.emptyMap();
+        } catch (MailSendException e) {
+            // Keys are the SimpleMailMessage instances that failed; the rest of the batch was delivered
+            failedMails = e.getFailedMessages();
+            if (failedMails.isEmpty()) {
+                failedMails = allFailed(mails, e);
+            }
+        } catch (MailException e) {
+            failedMails = allFailed(mails, e);
+        }
+
+        Map<Long, Exception> failures = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Exception failure = failedMails.get(mails[i]);
+            if (failure != null) {
+                failures.put(batch.get(i).getId(), failure);
+            }
+        }
+        return failures;
+    }
+
+    private void recordOutcomes(List<Long> ids, Map<Long, Exception> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutboxMessage> messages = emailOutboxRepository.findAllById(ids);
+        for (EmailOutboxMessage message : messages) {
+            Exception failure = failures.get(message.getId());
+            if (failure == null) {
+                message.setStatus(EmailOutboxMessage.Status.SENT);
+                message.setSentAt(now);
+                message.setLastError(null);
+            } else {
+                recordFailure(message, failure, now);
+            }
+        }
+        emailOutboxRepository.saveAll(messages);
+    }
+
+    private void recordFailure(EmailOutboxMessage message, Exception failure, LocalDateTime now) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        String error = String.valueOf(failure.getMessage());
+        message.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+
+        if (attempts >= maxAttempts) {
+            message.setStatus(EmailOutboxMessage.Status.DEAD);
+            log.error("Giving up on outbox message {} to {} after {} attempts: {}",
+                    message.getId(), message.getRecipient(), attempts, error);
+            return;
+        }
+        long backoff = Math.min(maxBackoffSeconds, initialBackoffSeconds << Math.min(attempts - 1, 20));
+        message.setNextAttemptAt(now.plus(Duration.ofSeconds(backoff)));
+        log.warn("Outbox message {} failed (attempt {}), retrying in {}s: {}",
+                message.getId(), attempts, backoff, error);
+    }
+
+    private SimpleMailMessage toMail(EmailOutboxMessage message) {
+        SimpleMailMessage mail = new SimpleMailMessage();
+        if (from != null && !from.isBlank()) {
+            mail.setFrom(from);
+        }
+        mail.setTo(message.getRecipient());
+        mail.setSubject(message.getSubject());
+        mail.setText(message.getBody());
+        return mail;
+    }
+
+    private static Map<Object, Exception> allFailed(SimpleMailMessage[] mails, Exception e) {
+        Map<Object, Exception> failures = new java.util.IdentityHashMap<>();
+        for (SimpleMailMessage mail : mails) {
+            failures.put(mail, e);
+        }
+        return failures;
+    }
+}
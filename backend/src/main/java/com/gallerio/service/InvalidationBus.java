@@ -0,0 +1,18 @@
+package com.gallerio.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Cluster-wide invalidation of in-process caches and indexes. A message names a region (one cache or index) and
+ * a key; every node, this one included, runs the region's handlers once the publishing transaction has committed.
+ * Publish from inside the writing transaction or outside any transaction, not from an after-commit callback.
+ */
+public interface InvalidationBus {
+
+    // Key telling handlers to drop the whole region, e.g. after this node may have missed messages
+    String ALL = "*";
+
+    void publish(String region, String key);
+
+    void subscribe(String region, Consumer<String> handler);
+}
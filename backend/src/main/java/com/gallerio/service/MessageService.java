@@ -1,13 +1,28 @@
 package com.gallerio.service;
 
+import com.gallerio.dto.ConversationSummaryDTO;
+import com.gallerio.dto.CursorPage;
 import com.gallerio.model.Message;
 import com.gallerio.model.User;
+import java.util.Collection;
 import java.util.List;
 
 public interface MessageService {
     Message sendMessage(User sender, User recipient, String content, String subject);
     List<Message> getInbox(User user);
     List<Message> getConversation(User user1, User user2);
+    // Newest first; pass the returned nextCursor back to continue further into the past
+    CursorPage<Message> getInboxPage(User user, String cursor, int limit);
+    CursorPage<Message> getConversationPage(User user, User otherUser, String cursor, int limit);
+    // The user's threads with last-message preview and unread count, most recently active first
+    CursorPage<ConversationSummaryDTO> getConversations(User user, String cursor, int limit);
+    long getUnreadCount(User user);
     void markAsRead(Long messageId, User user);
+    // Bulk variants return how many messages were actually flipped to read
+    int markConversationRead(User user, Long otherUserId, Long upToMessageId);
+    int markAsRead(Collection<Long> messageIds, User user);
+    // Same content to many recipients in a constant number of statements; artists and admins only.
+    // Returns the number of messages sent
+    int broadcast(User sender, Collection<Long> recipientIds, String content, String subject);
     Message getMessageById(Long id);
 } 
\ No newline at end of file
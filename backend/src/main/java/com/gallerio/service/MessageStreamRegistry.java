@@ -0,0 +1,140 @@
+package com.gallerio.service;
+
+import com.gallerio.dto.MessageDTO;
+import com.gallerio.mapper.MessageMapper;
+import com.gallerio.repository.MessageRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Per-node registry of open message streams (Server-Sent Events), keyed by user. New messages reach every node
+ * through the InvalidationBus after their transaction commits; a node loads the message only when one of its
+ * participants has a stream open here. Streams are servlet-async, so an idle connection holds a socket and an
+ * emitter but no request thread.
+ */
+@Slf4j
+@Component
+public class MessageStreamRegistry {
+
+    public static final String REGION = "messages.sent";
+
+    private final MessageRepository messageRepository;
+    private final MessageMapper messageMapper;
+    private final Map<Long, Deque<SseEmitter>> emittersByUser = new ConcurrentHashMap<>();
+
+    @Value("${app.messages.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${app.messages.stream.max-per-user:5}")
+    private int maxPerUser;
+
+    public MessageStreamRegistry(MessageRepository messageRepository, MessageMapper messageMapper,
+                                 InvalidationBus invalidationBus) {
+        this.messageRepository = messageRepository;
+        this.messageMapper = messageMapper;
+        invalidationBus.subscribe(REGION, this::deliver);
+    }
+
+    public SseEmitter open(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        register(userId, emitter);
+        try {
+            emitter.send(SseEmitter.event().name("ready").data(""));
+        } catch (IOException e) {
+            remove(userId, emitter);
+        }
+        return emitter;
+    }
+
+    void register(Long userId, SseEmitter emitter) {
+        List<SseEmitter> evicted = new ArrayList<>();
+        // Added inside compute so a concurrent remove() cannot drop the deque this emitter lands in
+        emittersByUser.compute(userId, (id, existing) -> {
+            Deque<SseEmitter> emitters = existing != null ? existing : new ConcurrentLinkedDeque<>();
+            emitters.addLast(emitter);
+            // A user with many stale tabs keeps only the newest streams
+            while (emitters.size() > maxPerUser) {
+                evicted.add(emitters.pollFirst());
+            }
+            return emitters;
+        });
+        evicted.forEach(SseEmitter::complete);
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+    }
+
+    // Called by MessageServiceImpl inside the sending transaction
+    public static String key(Long senderId, Long recipientId, Long messageId) {
+        return senderId + ":" + recipientId + ":" + messageId;
+    }
+
+    public int connectionCount() {
+        return emittersByUser.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    private void deliver(String key) {
+        String[] parts = key.split(":");
+        if (parts.length != 3) {
+            return;
+        }
+        Long senderId = Long.valueOf(parts[0]);
+        Long recipientId = Long.valueOf(parts[1]);
+        // The sender's other tabs get the message too, so their thread views stay in step
+        if (!emittersByUser.containsKey(recipientId) && !emittersByUser.containsKey(senderId)) {
+            return;
+        }
+        messageRepository.findWithParticipantsById(Long.valueOf(parts[2])).ifPresent(message -> {
+            MessageDTO dto = messageMapper.toDto(message);
+            send(recipientId, SseEmitter.event().name("message").id(dto.getId().toString()).data(dto));
+            if (!senderId.equals(recipientId)) {
+                send(senderId, SseEmitter.event().name("message").id(dto.getId().toString()).data(dto));
+            }
+        });
+    }
+
+    // Comment lines keep proxies from closing idle streams and reveal dead connections
+    @Scheduled(fixedDelayString = "${app.messages.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        emittersByUser.keySet().forEach(userId -> send(userId, SseEmitter.event().comment("")));
+    }
+
+    @PreDestroy
+    void closeAll() {
+        emittersByUser.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        emittersByUser.clear();
+    }
+
+    private void send(Long userId, SseEmitter.SseEventBuilder event) {
+        Deque<SseEmitter> emitters = emittersByUser.get(userId);
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                remove(userId, emitter);
+            }
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emittersByUser.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -0,0 +1,206 @@
+package com.gallerio.service;
+
+import com.gallerio.dto.OrderStatusSnapshot;
+import com.gallerio.dto.OrderStatusUpdate;
+import com.gallerio.dto.ReconciliationReport;
+import com.gallerio.dto.ReconciliationResult;
+import com.gallerio.dto.ReconciliationResult.Outcome;
+import com.gallerio.event.ArtworkChangedEvent;
+import com.gallerio.model.Artwork;
+import com.gallerio.model.Order;
+import com.gallerio.repository.ArtworkRepository;
+import com.gallerio.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies payment statuses to many orders at once, as when a day of mobile-money payments is reconciled.
+ * Rows are applied in chunks, each in its own transaction, with a fixed handful of set-based statements
+ * per chunk. A failing chunk rolls back alone. Every row gets an outcome in the report.
+ */
+@Slf4j
+@Service
+public class OrderReconciliationService {
+
+    // Applied chunk rows together with their parsed target status
+    private record Pending(ReconciliationResult result, Order.PaymentStatus target) {
+    }
+
+    private final OrderRepository orderRepository;
+    private final ArtworkRepository artworkRepository;
+    private final ArtistSalesService artistSalesService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.orders.reconcile.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.orders.reconcile.max-rows:200000}")
+    private int maxRows;
+
+    public OrderReconciliationService(OrderRepository orderRepository, ArtworkRepository artworkRepository,
+                                      ArtistSalesService artistSalesService, ApplicationEventPublisher eventPublisher,
+                                      PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.artworkRepository = artworkRepository;
+        this.artistSalesService = artistSalesService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Lines of "orderId,status"; a header line and blank lines are skipped
+    public ReconciliationReport reconcile(Reader csv) {
+        Iterator<OrderStatusUpdate> updates = new BufferedReader(csv).lines()
+                .map(String::strip)
+                .filter(line -> !line.isEmpty() && !line.regionMatches(true, 0, "orderId", 0, 7))
+                .map(OrderReconciliationService::parseLine)
+                .iterator();
+        return reconcile(updates);
+    }
+
+    public ReconciliationReport reconcile(Iterator<OrderStatusUpdate> updates) {
+        List<ReconciliationResult> results = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        List<Pending> chunk = new ArrayList<>(chunkSize);
+        boolean truncated = false;
+
+        while (updates.hasNext()) {
+            if (results.size() == maxRows) {
+                truncated = true;
+                break;
+            }
+            OrderStatusUpdate update = updates.next();
+            ReconciliationResult result = new ReconciliationResult(results.size() + 1L, update.getOrderId(),
+                    update.getStatus(), null, null);
+            results.add(result);
+
+            Order.PaymentStatus target = parseTarget(update.getStatus());
+            if (update.getOrderId() == null || target == null) {
+                resolve(result, Outcome.INVALID, "Expected an order id and a status of PAID or EXPIRED");
+            } else if (!seen.add(update.getOrderId())) {
+                resolve(result, Outcome.DUPLICATE, "Order appears earlier in this request");
+            } else {
+                chunk.add(new Pending(result, target));
+                if (chunk.size() == chunkSize) {
+                    applyChunk(chunk);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            applyChunk(chunk);
+        }
+
+        Map<Outcome, Long> outcomes = results.stream()
+                .collect(Collectors.groupingBy(ReconciliationResult::getOutcome,
+                        () -> new EnumMap<>(Outcome.class), Collectors.counting()));
+        log.info("Reconciled {} order rows: {}", results.size(), outcomes);
+        return new ReconciliationReport(results.size(), truncated, outcomes, results);
+    }
+
+    private void applyChunk(List<Pending> chunk) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyInTransaction(chunk));
+        } catch (RuntimeException e) {
+            log.error("Reconciliation chunk of {} rows rolled back", chunk.size(), e);
+            chunk.forEach(pending -> resolve(pending.result(), Outcome.FAILED, "Chunk rolled back: " + e.getMessage()));
+        }
+    }
+
+    private void applyInTransaction(List<Pending> chunk) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = chunk.stream().map(pending -> pending.result().getOrderId()).toList();
+        Map<Long, OrderStatusSnapshot> before = orderRepository.findStatusSnapshots(ids).stream()
+                .collect(Collectors.toMap(OrderStatusSnapshot::getOrderId, Function.identity()));
+
+        Map<Order.PaymentStatus, List<Pending>> byTarget = new EnumMap<>(Order.PaymentStatus.class);
+        for (Pending pending : chunk) {
+            OrderStatusSnapshot snapshot = before.get(pending.result().getOrderId());
+            if (snapshot == null) {
+                resolve(pending.result(), Outcome.NOT_FOUND, "Order not found");
+            } else if (snapshot.getPaymentStatus() == pending.target()) {
+                resolve(pending.result(), Outcome.UNCHANGED, null);
+            } else if (snapshot.getPaymentStatus() != Order.PaymentStatus.PENDING_PAYMENT) {
+                resolve(pending.result(), Outcome.CONFLICT, "Order is already " + snapshot.getPaymentStatus());
+            } else {
+                byTarget.computeIfAbsent(pending.target(), target -> new ArrayList<>()).add(pending);
+            }
+        }
+
+        byTarget.forEach((target, group) -> {
+            List<Long> groupIds = group.stream().map(pending -> pending.result().getOrderId()).toList();
+            // The update re-checks PENDING_PAYMENT; only when it lost a race do we ask which rows it took
+            String changeId = ArtistSalesService.newChangeId();
+            int updated = orderRepository.updateStatusIfPendingIn(groupIds, target, changeId);
+            Set<Long> applied = updated == groupIds.size()
+                    ? new HashSet<>(groupIds)
+                    : new HashSet<>(orderRepository.findIdsByStatusChangeId(changeId));
+            for (Pending pending : group) {
+                if (applied.contains(pending.result().getOrderId())) {
+                    resolve(pending.result(), Outcome.UPDATED, null);
+                } else {
+                    resolve(pending.result(), Outcome.CONFLICT, "Order changed during reconciliation");
+                }
+            }
+            if (applied.isEmpty()) {
+                return;
+            }
+            artistSalesService.recordChange(changeId, Order.PaymentStatus.PENDING_PAYMENT, target);
+
+            String artworkStatus = target == Order.PaymentStatus.PAID ? Artwork.STATUS_SOLD : Artwork.STATUS_AVAILABLE;
+            artworkRepository.settleReservationsForOrders(applied, artworkStatus, now);
+            for (Long orderId : applied) {
+                OrderStatusSnapshot snapshot = before.get(orderId);
+                eventPublisher.publishEvent(new ArtworkChangedEvent(snapshot.getArtworkId(), snapshot.getArtistId(),
+                        ArtworkChangedEvent.Type.STATUS_CHANGED));
+            }
+        });
+    }
+
+    private static void resolve(ReconciliationResult result, Outcome outcome, String message) {
+        result.setOutcome(outcome);
+        result.setMessage(message);
+    }
+
+    // Orders can only be reconciled out of PENDING_PAYMENT
+    private static Order.PaymentStatus parseTarget(String status) {
+        if (status == null) {
+            return null;
+        }
+        try {
+            Order.PaymentStatus target = Order.PaymentStatus.valueOf(status.strip().toUpperCase());
+            return target == Order.PaymentStatus.PENDING_PAYMENT ? null : target;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static OrderStatusUpdate parseLine(String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length == 2) {
+            try {
+                return new OrderStatusUpdate(Long.valueOf(fields[0].strip()), fields[1].strip());
+            } catch (NumberFormatException e) {
+                // Reported as invalid below
+            }
+        }
+        return new OrderStatusUpdate(null, line);
+    }
+}
@@ -1,31 +1,105 @@
 package com.gallerio.service;
 
+import com.gallerio.event.ArtworkChangedEvent;
+import com.gallerio.repository.OrderIdempotencyKeyRepository;
 import com.gallerio.repository.OrderRepository;
 import com.gallerio.repository.ArtworkRepository;
 import com.gallerio.repository.UserRepository;
 import com.gallerio.model.Order;
+import com.gallerio.model.OrderIdempotencyKey;
 import com.gallerio.model.Artwork;
 import com.gallerio.model.User;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.function.Supplier;
 
+/**
+ * Orders reserve their artwork with a single conditional update, so concurrent buyers of a one-of-a-kind
+ * piece are decided by the database and every loser fails fast. The reservation holds the artwork until
+ * payment is confirmed or the hold expires and the scheduled sweep puts it back on the market.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class OrderService {
     private final OrderRepository orderRepository;
     private final ArtworkRepository artworkRepository;
     private final UserRepository userRepository;
+    private final OrderIdempotencyKeyRepository idempotencyKeyRepository;
+    private final ArtistSalesService artistSalesService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.orders.reservation.hold-minutes:15}")
+    private long holdMinutes;
+
+    @Value("${app.orders.reservation.sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    @Value("${app.orders.idempotency.ttl-hours:24}")
+    private long idempotencyTtlHours;
 
     @Transactional
     public Order createOrder(Long artworkId, String customerEmail, String phoneNumber, String paymentMethod) {
-        Artwork artwork = artworkRepository.findById(artworkId)
-                .orElseThrow(() -> new RuntimeException("Artwork not found"));
-        
+        return placeOrder(artworkId, () -> userRepository.findByEmail(customerEmail)
+                .orElseThrow(() -> new RuntimeException("Customer not found")), phoneNumber, paymentMethod);
+    }
+
+    /**
+     * Places the order once per customer and Idempotency-Key. A retry gets the order the first request
+     * created, without reserving or inserting anything; reusing a key for a different request is rejected.
+     */
+    @Transactional
+    public Order createOrder(String idempotencyKey, Long artworkId, String customerEmail,
+                             String phoneNumber, String paymentMethod) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > OrderIdempotencyKey.MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to "
+                    + OrderIdempotencyKey.MAX_KEY_LENGTH + " characters");
+        }
         User customer = userRepository.findByEmail(customerEmail)
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
+        String requestHash = requestHash(artworkId, phoneNumber, paymentMethod);
+        LocalDateTime now = LocalDateTime.now();
+
+        if (idempotencyKeyRepository.claim(customer.getId(), idempotencyKey, requestHash, now,
+                now.plusHours(idempotencyTtlHours)) == 0) {
+            return replay(customer.getId(), idempotencyKey, requestHash);
+        }
+        // A failed order rolls the claim back with it, so the client may retry under the same key
+        Order order = placeOrder(artworkId, () -> customer, phoneNumber, paymentMethod);
+        idempotencyKeyRepository.attachOrder(customer.getId(), idempotencyKey, order.getId());
+        return order;
+    }
+
+    private Order placeOrder(Long artworkId, Supplier<User> customerLookup, String phoneNumber, String paymentMethod) {
+        // Truncated to what the database stores so the order and artwork hold compare equal
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        LocalDateTime expiresAt = now.plusMinutes(holdMinutes);
+
+        // Claim the piece first: a losing buyer costs one statement and holds no row lock
+        if (artworkRepository.reserveIfAvailable(artworkId, expiresAt, now) == 0) {
+            if (!artworkRepository.existsById(artworkId)) {
+                throw new RuntimeException("Artwork not found");
+            }
+            throw new IllegalStateException("Artwork is not available");
+        }
+
+        User customer = customerLookup.get();
+        Artwork artwork = artworkRepository.findById(artworkId)
+                .orElseThrow(() -> new RuntimeException("Artwork not found"));
 
         Order order = Order.builder()
                 .artwork(artwork)
@@ -33,9 +107,95 @@ public class OrderService {
                 .phoneNumber(phoneNumber)
                 .paymentMethod(paymentMethod)
                 .paymentStatus(Order.PaymentStatus.PENDING_PAYMENT)
+                .expiresAt(expiresAt)
+                .amount(artwork.getPrice())
+                .statusChangeId(ArtistSalesService.newChangeId())
                 .build();
 
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        artistSalesService.recordChange(saved.getStatusChangeId(), null, Order.PaymentStatus.PENDING_PAYMENT);
+        eventPublisher.publishEvent(new ArtworkChangedEvent(artworkId, artwork.getUser().getId(),
+                ArtworkChangedEvent.Type.STATUS_CHANGED));
+        return saved;
+    }
+
+    private Order replay(Long customerId, String idempotencyKey, String requestHash) {
+        OrderIdempotencyKey stored = idempotencyKeyRepository.findByCustomerIdAndIdempotencyKey(customerId, idempotencyKey)
+                .orElseThrow(() -> new IllegalStateException("A request with this Idempotency-Key is in progress"));
+        if (!stored.getRequestHash().equals(requestHash)) {
+            throw new IllegalArgumentException("Idempotency-Key was already used for a different request");
+        }
+        if (stored.getOrderId() == null) {
+            throw new IllegalStateException("A request with this Idempotency-Key is in progress");
+        }
+        return orderRepository.findById(stored.getOrderId())
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+    }
+
+    private static String requestHash(Long artworkId, String phoneNumber, String paymentMethod) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String canonical = artworkId + "\n" + phoneNumber + "\n" + paymentMethod;
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // PAID sells the artwork, EXPIRED releases it; both only from PENDING_PAYMENT
+    @Transactional
+    public Order updatePaymentStatus(Long orderId, Order.PaymentStatus status) {
+        if (status == Order.PaymentStatus.PENDING_PAYMENT) {
+            throw new IllegalArgumentException("An order cannot be moved back to pending payment");
+        }
+        String changeId = ArtistSalesService.newChangeId();
+        if (orderRepository.updateStatusIfPending(orderId, status, changeId) == 0) {
+            Order order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new RuntimeException("Order not found"));
+            if (order.getPaymentStatus() == status) {
+                return order;
+            }
+            throw new IllegalStateException("Order is already " + order.getPaymentStatus());
+        }
+        artistSalesService.recordChange(changeId, Order.PaymentStatus.PENDING_PAYMENT, status);
+
+        String artworkStatus = status == Order.PaymentStatus.PAID ? Artwork.STATUS_SOLD : Artwork.STATUS_AVAILABLE;
+        int settled = artworkRepository.settleReservationForOrder(orderId, artworkStatus, LocalDateTime.now());
+
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+        if (settled > 0) {
+            eventPublisher.publishEvent(new ArtworkChangedEvent(order.getArtwork().getId(),
+                    order.getArtwork().getUser().getId(), ArtworkChangedEvent.Type.STATUS_CHANGED));
+        }
+        return order;
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.reservation.sweep-interval-ms:30000}")
+    @Transactional
+    public void releaseExpiredReservations() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> artworkIds = artworkRepository.findIdsWithExpiredReservation(now, Limit.of(sweepBatchSize));
+        if (artworkIds.isEmpty()) {
+            return;
+        }
+        // Orders first, in the same lock order as a payment confirmation
+        String changeId = ArtistSalesService.newChangeId();
+        int expired = orderRepository.expirePendingForArtworks(artworkIds, now, changeId);
+        if (expired > 0) {
+            artistSalesService.recordChange(changeId, Order.PaymentStatus.PENDING_PAYMENT, Order.PaymentStatus.EXPIRED);
+        }
+        int released = artworkRepository.releaseExpiredReservations(artworkIds, now);
+        artworkIds.forEach(id -> eventPublisher.publishEvent(
+                new ArtworkChangedEvent(id, null, ArtworkChangedEvent.Type.STATUS_CHANGED)));
+        log.info("Released {} expired artwork reservations and expired {} orders", released, expired);
+    }
+
+    @Scheduled(cron = "${app.orders.idempotency.purge-cron:0 15 * * * *}")
+    @Transactional
+    public void purgeExpiredIdempotencyKeys() {
+        int deleted = idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+        log.info("Purged {} expired order idempotency keys", deleted);
     }
 
     public List<Order> getArtistOrders(String artistEmail) {
@@ -49,4 +209,4 @@ public class OrderService {
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
         return orderRepository.findByCustomer(customer);
     }
-} 
\ No newline at end of file
+}
@@ -1,27 +1,38 @@
 package com.gallerio.service;
 
+import com.gallerio.config.CacheConfig;
 import com.gallerio.repository.UserRepository;
+import com.gallerio.dto.ArtistDirectoryEntry;
+import com.gallerio.dto.PageResponse;
 import com.gallerio.dto.UserProfileResponse;
 import com.gallerio.dto.UserProfileUpdateRequest;
 import com.gallerio.dto.PasswordChangeRequest;
+import com.gallerio.dto.UserSuggestionDTO;
+import com.gallerio.event.UserChangedEvent;
+import com.gallerio.mapper.UserProfileMapper;
+import com.gallerio.security.PrincipalCache;
+import com.gallerio.security.TokenVersionRegistry;
 import com.gallerio.model.User;
 import com.gallerio.model.Role;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
-import java.util.Base64;
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,21 +42,21 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserProfileMapper userProfileMapper;
+    private final AvatarStorageService avatarStorageService;
+    private final PrincipalCache principalCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final UserTypeaheadIndex userTypeaheadIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.artists.max-page-size:100}")
+    private int maxArtistPageSize;
 
     public UserProfileResponse getUserProfile(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        return UserProfileResponse.builder()
-                .id(user.getId())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .email(user.getEmail())
-                .role(user.getRole().name())
-                .location(user.getLocation())
-                .bio(user.getBio())
-                .profilePhoto(user.getProfilePhoto())
-                .build();
+        return userProfileMapper.toProfileResponse(user);
     }
 
     @Transactional
@@ -67,37 +78,7 @@ public class UserService {
         }
         if (request.getProfilePhoto() != null && !request.getProfilePhoto().isEmpty()) {
             try {
-                // Read the image
-                BufferedImage originalImage = ImageIO.read(request.getProfilePhoto().getInputStream());
-                
-                // Calculate new dimensions while maintaining aspect ratio
-                int maxDimension = 200; // Maximum width or height
-                int originalWidth = originalImage.getWidth();
-                int originalHeight = originalImage.getHeight();
-                int newWidth = originalWidth;
-                int newHeight = originalHeight;
-                
-                if (originalWidth > maxDimension || originalHeight > maxDimension) {
-                    if (originalWidth > originalHeight) {
-                        newWidth = maxDimension;
-                        newHeight = (int) ((double) originalHeight / originalWidth * maxDimension);
-                    } else {
-                        newHeight = maxDimension;
-                        newWidth = (int) ((double) originalWidth / originalHeight * maxDimension);
-                    }
-                }
-                
-                // Create resized image
-                BufferedImage resizedImage = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_RGB);
-                resizedImage.createGraphics().drawImage(originalImage, 0, 0, newWidth, newHeight, null);
-                
-                // Convert to JPEG with compression
-                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-                ImageIO.write(resizedImage, "jpg", outputStream);
-                
-                // Convert to base64
-                String base64Image = Base64.getEncoder().encodeToString(outputStream.toByteArray());
-                user.setProfilePhoto(base64Image);
+                user.setAvatarHash(avatarStorageService.storeAvatar(request.getProfilePhoto()));
             } catch (IOException e) {
                 log.error("Error processing profile photo: {}", e.getMessage());
                 throw new RuntimeException("Error processing profile photo");
@@ -105,13 +86,18 @@ public class UserService {
         }
 
         userRepository.save(user);
+        principalCache.invalidate(email);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), UserChangedEvent.Type.UPDATED));
 
         return getUserProfile(email);
     }
 
     @Transactional
     public void deleteUserWithCascade(Long userId) {
+        userRepository.findById(userId).ifPresent(user -> principalCache.invalidate(user.getEmail()));
         userRepository.deleteUserAndRelated(userId);
+        tokenVersionRegistry.invalidate(userId);
+        eventPublisher.publishEvent(new UserChangedEvent(userId, UserChangedEvent.Type.DELETED));
     }
 
     @Transactional
@@ -126,38 +112,47 @@ public class UserService {
 
         // Update password
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        user.setTokenVersion(user.getTokenVersion() + 1);
         userRepository.save(user);
+        principalCache.invalidate(email);
+        tokenVersionRegistry.invalidate(user.getId());
     }
 
+    @Cacheable(cacheNames = CacheConfig.ARTISTS, key = "'all'", sync = true)
     public List<UserProfileResponse> getAllArtists() {
-        return userRepository.findAll().stream()
-            .filter(user -> user.getRole() == Role.ARTIST)
-            .map(user -> UserProfileResponse.builder()
-                .id(user.getId())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .email(user.getEmail())
-                .role(user.getRole().name())
-                .location(user.getLocation())
-                .bio(user.getBio())
-                .profilePhoto(user.getProfilePhoto())
-                .build())
+        return userRepository.findByRole(Role.ARTIST).stream()
+            .map(userProfileMapper::toProfileResponse)
             .collect(Collectors.toList());
     }
 
+    // sort: "name" (default), "newest" or "artworks"
+    public PageResponse<ArtistDirectoryEntry> getArtistDirectory(String sort, int page, int size) {
+        Pageable pageable = PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, maxArtistPageSize)));
+        Page<ArtistDirectoryEntry> result = switch (sort == null ? "name" : sort.toLowerCase()) {
+            case "name" -> userRepository.findArtistDirectoryByName(pageable);
+            case "newest" -> userRepository.findArtistDirectoryByNewest(pageable);
+            case "artworks" -> userRepository.findArtistDirectoryByArtworkCount(pageable);
+            default -> throw new IllegalArgumentException("Unknown sort: " + sort);
+        };
+        return PageResponse.of(result);
+    }
+
+    public List<UserSuggestionDTO> typeahead(String query, int limit) {
+        return userTypeaheadIndex.suggest(query, limit);
+    }
+
+    // Name-prefix matches from the typeahead index, then one primary-key lookup for the full profiles
     public List<UserProfileResponse> searchUsers(String query) {
-        return userRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(query, query)
-            .stream()
-            .map(user -> UserProfileResponse.builder()
-                .id(user.getId())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .email(user.getEmail())
-                .role(user.getRole().name())
-                .location(user.getLocation())
-                .bio(user.getBio())
-                .profilePhoto(user.getProfilePhoto())
-                .build())
+        // suggest() caps the result count at app.users.typeahead.max-results
+        List<Long> ids = userTypeaheadIndex.suggest(query, Integer.MAX_VALUE).stream()
+            .map(UserSuggestionDTO::getId)
+            .collect(Collectors.toList());
+        Map<Long, User> usersById = userRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.stream()
+            .map(usersById::get)
+            .filter(Objects::nonNull)
+            .map(userProfileMapper::toProfileResponse)
             .collect(Collectors.toList());
     }
 } 
\ No newline at end of file
@@ -0,0 +1,218 @@
+package com.gallerio.service;
+
+import com.gallerio.dto.UserSuggestionDTO;
+import com.gallerio.event.UserChangedEvent;
+import com.gallerio.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index for user typeahead. Each first- and last-name token maps to a sorted array of user ids
+ * in a skip list, so a prefix lookup is a range scan over tokens instead of a LIKE '%q%' over the users table.
+ * Tokens repeat heavily across users, which keeps the index to a few bytes per user beyond the suggestion itself.
+ */
+@Slf4j
+@Service
+public class UserTypeaheadIndex {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s\\-']+");
+    private static final long[] NO_IDS = new long[0];
+    private static final String REGION = "typeahead.users";
+
+    private final UserRepository userRepository;
+    private final InvalidationBus invalidationBus;
+    private final ConcurrentSkipListMap<String, long[]> idsByToken = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, Entry> entriesById = new ConcurrentHashMap<>();
+
+    // Normalised name tokens are kept alongside the suggestion so multi-word queries never re-tokenise
+    private record Entry(UserSuggestionDTO suggestion, String[] tokens) {
+    }
+
+    @Value("${app.users.typeahead.max-results:20}")
+    private int maxResults;
+
+    // Upper bound on candidates examined per query, for short prefixes combined with a non-matching second word
+    @Value("${app.users.typeahead.scan-budget:5000}")
+    private int scanBudget;
+
+    public UserTypeaheadIndex(UserRepository userRepository, InvalidationBus invalidationBus) {
+        this.userRepository = userRepository;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(REGION, this::refresh);
+    }
+
+    // Also used to resynchronise after missed invalidations, so users no longer in the table are dropped
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.currentTimeMillis();
+        Set<Long> loaded = new HashSet<>();
+        long afterId = 0;
+        List<UserSuggestionDTO> batch;
+        while (!(batch = userRepository.findSuggestionsAfter(afterId, Limit.of(1000))).isEmpty()) {
+            for (UserSuggestionDTO suggestion : batch) {
+                put(suggestion);
+                loaded.add(suggestion.getId());
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+        entriesById.keySet().stream().filter(id -> !loaded.contains(id)).toList().forEach(this::remove);
+        log.info("Loaded {} users into the typeahead index in {} ms", loaded.size(),
+                System.currentTimeMillis() - started);
+    }
+
+    // Every node refreshes the user from the database once the change has committed
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        invalidationBus.publish(REGION, event.userId().toString());
+    }
+
+    private void refresh(String key) {
+        if (InvalidationBus.ALL.equals(key)) {
+            load();
+            return;
+        }
+        Long userId = Long.valueOf(key);
+        userRepository.findSuggestionById(userId).ifPresentOrElse(this::put, () -> remove(userId));
+    }
+
+    public List<UserSuggestionDTO> suggest(String query, int limit) {
+        String[] words = tokens(query);
+        if (words.length == 0) {
+            return List.of();
+        }
+        int cap = Math.max(1, Math.min(limit, maxResults));
+
+        // The first word drives the index scan; any further words must prefix-match one of the user's names
+        String prefix = words[0];
+        Map<Long, UserSuggestionDTO> matches = new LinkedHashMap<>();
+        int scanned = 0;
+        NavigableMap<String, long[]> range = idsByToken.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        outer:
+        for (long[] ids : range.values()) {
+            for (long id : ids) {
+                if (++scanned > scanBudget) {
+                    break outer;
+                }
+                Entry entry = entriesById.get(id);
+                if (entry != null && !matches.containsKey(id) && matchesRemaining(entry.tokens(), words)) {
+                    matches.put(id, entry.suggestion());
+                    if (matches.size() == cap) {
+                        break outer;
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(matches.values());
+    }
+
+    public int size() {
+        return entriesById.size();
+    }
+
+    public void put(UserSuggestionDTO suggestion) {
+        Entry entry = new Entry(suggestion, nameTokens(suggestion));
+        Entry previous = entriesById.put(suggestion.getId(), entry);
+        if (previous != null) {
+            for (String token : previous.tokens()) {
+                removeId(token, suggestion.getId());
+            }
+        }
+        for (String token : entry.tokens()) {
+            addId(token, suggestion.getId());
+        }
+    }
+
+    public void remove(Long userId) {
+        Entry previous = entriesById.remove(userId);
+        if (previous != null) {
+            for (String token : previous.tokens()) {
+                removeId(token, userId);
+            }
+        }
+    }
+
+    private void addId(String token, long id) {
+        // Copy-on-write so concurrent readers always see a complete, sorted array
+        idsByToken.compute(token, (key, ids) -> {
+            long[] current = ids != null ? ids : NO_IDS;
+            int position = Arrays.binarySearch(current, id);
+            if (position >= 0) {
+                return current;
+            }
+            int insertAt = -position - 1;
+            long[] updated = new long[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, insertAt);
+            updated[insertAt] = id;
+            System.arraycopy(current, insertAt, updated, insertAt + 1, current.length - insertAt);
+            return updated;
+        });
+    }
+
+    private void removeId(String token, long id) {
+        idsByToken.computeIfPresent(token, (key, ids) -> {
+            int position = Arrays.binarySearch(ids, id);
+            if (position < 0) {
+                return ids;
+            }
+            if (ids.length == 1) {
+                return null;
+            }
+            long[] updated = new long[ids.length - 1];
+            System.arraycopy(ids, 0, updated, 0, position);
+            System.arraycopy(ids, position + 1, updated, position, ids.length - position - 1);
+            return updated;
+        });
+    }
+
+    private static boolean matchesRemaining(String[] names, String[] words) {
+        for (int i = 1; i < words.length; i++) {
+            boolean found = false;
+            for (String name : names) {
+                if (name.startsWith(words[i])) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] nameTokens(UserSuggestionDTO suggestion) {
+        String first = suggestion.getFirstName() != null ? suggestion.getFirstName() : "";
+        String last = suggestion.getLastName() != null ? suggestion.getLastName() : "";
+        return Arrays.stream(tokens(first + " " + last)).distinct().toArray(String[]::new);
+    }
+
+    // Lower-cased, accent-folded words: "Zoë O'Neil" indexes as "zoe", "o", "neil"
+    static String[] tokens(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .trim();
+        return Arrays.stream(SEPARATORS.split(folded)).filter(word -> !word.isEmpty()).toArray(String[]::new);
+    }
+}
@@ -0,0 +1,62 @@
+package com.gallerio.service.impl;
+
+import com.gallerio.service.InvalidationBus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Local handler registry shared by the bus implementations. This node's own handlers run after the commit,
+ * so a concurrent reader cannot re-cache the row as it was before the change.
+ */
+@Slf4j
+abstract class AbstractInvalidationBus implements InvalidationBus {
+
+    private final Map<String, List<Consumer<String>>> handlers = new ConcurrentHashMap<>();
+
+    @Override
+    public void subscribe(String region, Consumer<String> handler) {
+        handlers.computeIfAbsent(region, r -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    @Override
+    public void publish(String region, String key) {
+        if (region == null || key == null) {
+            return;
+        }
+        broadcast(region, key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(region, key);
+                }
+            });
+        } else {
+            deliver(region, key);
+        }
+    }
+
+    // Sends the message to the other nodes; called in the publishing transaction when there is one
+    protected abstract void broadcast(String region, String key);
+
+    protected void deliver(String region, String key) {
+        for (Consumer<String> handler : handlers.getOrDefault(region, List.of())) {
+            try {
+                handler.accept(key);
+            } catch (RuntimeException e) {
+                log.error("Invalidation handler failed for {}:{}", region, key, e);
+            }
+        }
+    }
+
+    protected void deliverAll() {
+        handlers.keySet().forEach(region -> deliver(region, ALL));
+    }
+}
@@ -2,14 +2,21 @@ package com.gallerio.service.impl;
 
 import com.gallerio.repository.ArtworkRepository;
 import com.gallerio.repository.UserRepository;
+import com.gallerio.config.CacheConfig;
 import com.gallerio.dto.ArtworkDTO;
+import com.gallerio.dto.CursorPage;
+import com.gallerio.dto.KeysetCursor;
+import com.gallerio.event.ArtworkChangedEvent;
+import com.gallerio.mapper.ArtworkMapper;
 import com.gallerio.model.Artwork;
 import com.gallerio.model.User;
 import com.gallerio.model.Role;
 import com.gallerio.service.ArtworkService;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -19,8 +26,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -32,13 +40,21 @@ public class ArtworkServiceImpl implements ArtworkService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ArtworkMapper artworkMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Value("${app.upload.dir:uploads}")
     private String uploadDir;
 
+    @Value("${app.catalog.max-page-size:100}")
+    private int maxCatalogPageSize;
+
     @Override
     public ArtworkDTO createArtwork(ArtworkDTO artworkDTO) {
-        Artwork artwork = new Artwork();
-        BeanUtils.copyProperties(artworkDTO, artwork, "image");
+        Artwork artwork = artworkMapper.toEntity(artworkDTO);
         
         User user = userRepository.findById(artworkDTO.getUserId())
             .orElseThrow(() -> new RuntimeException("User not found"));
@@ -77,46 +93,59 @@ public class ArtworkServiceImpl implements ArtworkService {
         }
         
         Artwork savedArtwork = artworkRepository.save(artwork);
-        BeanUtils.copyProperties(savedArtwork, artworkDTO);
-        artworkDTO.setUserId(savedArtwork.getUser().getId());
-        return artworkDTO;
+        eventPublisher.publishEvent(new ArtworkChangedEvent(savedArtwork.getId(), user.getId(),
+                ArtworkChangedEvent.Type.CREATED));
+        return artworkMapper.toDto(savedArtwork);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.ARTWORKS, key = "#id", sync = true)
     public ArtworkDTO getArtwork(Long id) {
         Artwork artwork = artworkRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Artwork not found"));
-        ArtworkDTO artworkDTO = new ArtworkDTO();
-        BeanUtils.copyProperties(artwork, artworkDTO);
-        artworkDTO.setUserId(artwork.getUser().getId());
-        artworkDTO.setArtistName(artwork.getUser().getFirstName() + " " + artwork.getUser().getLastName());
-        return artworkDTO;
+        return artworkMapper.toDto(artwork);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ArtworkDTO> getAllArtworks() {
-        return artworkRepository.findAll().stream()
-            .map(artwork -> {
-                ArtworkDTO dto = new ArtworkDTO();
-                BeanUtils.copyProperties(artwork, dto);
-                dto.setUserId(artwork.getUser().getId());
-                dto.setArtistName(artwork.getUser().getFirstName() + " " + artwork.getUser().getLastName());
-                return dto;
-            })
-            .collect(Collectors.toList());
+        return artworkRepository.findAllListings();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ArtworkDTO> getCatalogPage(String category, String status, Double minPrice, Double maxPrice,
+                                                 String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxCatalogPageSize));
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        Limit fetchLimit = Limit.of(pageSize + 1);
+
+        List<ArtworkDTO> artworks;
+        if (cursor == null || cursor.isBlank()) {
+            artworks = artworkRepository.findCatalogFirstPage(category, status, minPrice, maxPrice, fetchLimit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            artworks = artworkRepository.findCatalogPageAfter(category, status, minPrice, maxPrice,
+                    position.createdAt(), position.id(), fetchLimit);
+        }
+
+        boolean hasMore = artworks.size() > pageSize;
+        List<ArtworkDTO> items = hasMore ? artworks.subList(0, pageSize) : artworks;
+
+        String nextCursor = null;
+        if (hasMore) {
+            ArtworkDTO last = items.get(items.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(items, nextCursor, hasMore);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.ARTWORKS_BY_USER, key = "#userId", sync = true)
     public List<ArtworkDTO> getArtworksByUser(Long userId) {
-        return artworkRepository.findByUserId(userId).stream()
-            .map(artwork -> {
-                ArtworkDTO dto = new ArtworkDTO();
-                BeanUtils.copyProperties(artwork, dto);
-                dto.setUserId(artwork.getUser().getId());
-                dto.setArtistName(artwork.getUser().getFirstName() + " " + artwork.getUser().getLastName());
-                return dto;
-            })
-            .collect(Collectors.toList());
+        return artworkRepository.findListingsByUserId(userId);
     }
 
     @Override
@@ -124,7 +153,20 @@ public class ArtworkServiceImpl implements ArtworkService {
         Artwork existingArtwork = artworkRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Artwork not found"));
         
-        BeanUtils.copyProperties(artworkDTO, existingArtwork, "id", "createdAt");
+        String previousImageUrl = existingArtwork.getImageUrl();
+        Long previousUserId = existingArtwork.getUser().getId();
+        String previousStatus = existingArtwork.getStatus();
+        artworkMapper.updateEntity(artworkDTO, existingArtwork);
+        if (Artwork.STATUS_RESERVED.equals(previousStatus) || Artwork.STATUS_SOLD.equals(previousStatus)) {
+            // Only the order flow moves an artwork out of a hold or a sale
+            existingArtwork.setStatus(previousStatus);
+        }
+        if (!Objects.equals(previousImageUrl, existingArtwork.getImageUrl())) {
+            // Variants of the old image no longer apply; they are regenerated after commit
+            existingArtwork.setThumbnailUrl(null);
+            existingArtwork.setMediumUrl(null);
+            existingArtwork.setLargeUrl(null);
+        }
         
         if (artworkDTO.getUserId() != null) {
             User user = userRepository.findById(artworkDTO.getUserId())
@@ -139,9 +181,10 @@ public class ArtworkServiceImpl implements ArtworkService {
         }
         
         Artwork updatedArtwork = artworkRepository.save(existingArtwork);
-        BeanUtils.copyProperties(updatedArtwork, artworkDTO);
-        artworkDTO.setUserId(updatedArtwork.getUser().getId());
-        return artworkDTO;
+        Long userId = updatedArtwork.getUser().getId();
+        eventPublisher.publishEvent(new ArtworkChangedEvent(updatedArtwork.getId(), userId,
+                ArtworkChangedEvent.Type.UPDATED, userId.equals(previousUserId) ? null : previousUserId));
+        return artworkMapper.toDto(updatedArtwork);
     }
 
     @Override
@@ -149,9 +192,14 @@ public class ArtworkServiceImpl implements ArtworkService {
         Artwork artwork = artworkRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Artwork not found"));
 
-        if (artwork.getImageUrl() != null && !artwork.getImageUrl().isEmpty()) {
+        // The original plus any generated variants
+        List<String> imageUrls = Stream.of(artwork.getImageUrl(), artwork.getThumbnailUrl(),
+                        artwork.getMediumUrl(), artwork.getLargeUrl())
+                .filter(url -> url != null && !url.isEmpty())
+                .toList();
+        for (String url : imageUrls) {
             // Remove leading slash if present
-            String relativePath = artwork.getImageUrl().startsWith("/") ? artwork.getImageUrl().substring(1) : artwork.getImageUrl();
+            String relativePath = url.startsWith("/") ? url.substring(1) : url;
             Path imagePath = Paths.get(relativePath);
             try {
                 Files.deleteIfExists(imagePath);
@@ -162,5 +210,7 @@ public class ArtworkServiceImpl implements ArtworkService {
         }
 
         artworkRepository.deleteById(id);
+        eventPublisher.publishEvent(new ArtworkChangedEvent(id, artwork.getUser().getId(),
+                ArtworkChangedEvent.Type.DELETED));
     }
 } 
\ No newline at end of file
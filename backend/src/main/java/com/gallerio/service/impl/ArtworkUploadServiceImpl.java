@@ -0,0 +1,371 @@
+package com.gallerio.service.impl;
+
+import com.gallerio.dto.ArtworkDTO;
+import com.gallerio.dto.ArtworkUploadRequest;
+import com.gallerio.dto.ArtworkUploadStatus;
+import com.gallerio.model.ArtworkUpload;
+import com.gallerio.model.Role;
+import com.gallerio.model.User;
+import com.gallerio.repository.ArtworkUploadRepository;
+import com.gallerio.repository.UserRepository;
+import com.gallerio.service.ArtworkService;
+import com.gallerio.service.ArtworkUploadService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+// Chunks are streamed from the request body to disk, so an upload never sits in heap or in the servlet's multipart
+// temp area, and appended to a partial file. The Artwork row is only created once the checksum matches.
+@Slf4j
+@Service
+@Transactional
+public class ArtworkUploadServiceImpl implements ArtworkUploadService {
+
+    private static final Pattern SHA256_HEX = Pattern.compile("^[0-9a-fA-F]{64}$");
+    private static final Pattern ARTWORK_STATUS = Pattern.compile("^(AVAILABLE|UNAVAILABLE)$");
+
+    @Autowired
+    private ArtworkUploadRepository artworkUploadRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ArtworkService artworkService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.upload.dir:uploads}")
+    private String uploadDir;
+
+    @Value("${app.upload.partial-dir:uploads-partial}")
+    private String partialDir;
+
+    @Value("${app.upload.max-artwork-bytes:262144000}")
+    private long maxArtworkBytes;
+
+    @Value("${app.upload.max-chunk-bytes:16777216}")
+    private long maxChunkBytes;
+
+    @Value("${app.upload.abandon-after-hours:24}")
+    private long abandonAfterHours;
+
+    @Override
+    public ArtworkUploadStatus initUpload(String email, ArtworkUploadRequest request) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (user.getRole() != Role.ARTIST) {
+            throw new IllegalArgumentException("Only artists can create artworks");
+        }
+        if (request.getTitle() == null || request.getDescription() == null || request.getPrice() == null
+                || request.getCategory() == null || request.getFilename() == null) {
+            throw new IllegalArgumentException("Missing artwork details");
+        }
+        if (request.getStatus() == null || !ARTWORK_STATUS.matcher(request.getStatus()).matches()) {
+            throw new IllegalArgumentException("Status must be either AVAILABLE or UNAVAILABLE");
+        }
+        if (request.getTotalBytes() == null || request.getTotalBytes() <= 0 || request.getTotalBytes() > maxArtworkBytes) {
+            throw new IllegalArgumentException("Image size must be between 1 and " + maxArtworkBytes + " bytes");
+        }
+        if (request.getSha256() == null || !SHA256_HEX.matcher(request.getSha256()).matches()) {
+            throw new IllegalArgumentException("A hex SHA-256 checksum of the image is required");
+        }
+
+        ArtworkUpload upload = ArtworkUpload.builder()
+                .id(UUID.randomUUID().toString())
+                .user(user)
+                .title(request.getTitle())
+                .description(request.getDescription())
+                .price(request.getPrice())
+                .category(request.getCategory())
+                .status(request.getStatus())
+                .originalFilename(sanitizeFilename(request.getFilename()))
+                .contentType(request.getContentType())
+                .totalBytes(request.getTotalBytes())
+                .receivedBytes(0)
+                .sha256(request.getSha256().toLowerCase())
+                .state(ArtworkUpload.State.IN_PROGRESS)
+                .build();
+        return toStatus(artworkUploadRepository.save(upload));
+    }
+
+    // Runs without a transaction: the body is read from the client into a scratch file while no pooled connection
+    // or row lock is held. Only the local append and the offset advance share a short transaction
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ArtworkUploadStatus writeChunk(String email, String uploadId, long offset, long length, InputStream data) {
+        ArtworkUpload upload = artworkUploadRepository.findByIdAndUser_Email(uploadId, email)
+                .orElseThrow(() -> new RuntimeException("Upload not found"));
+        if (upload.getState() != ArtworkUpload.State.IN_PROGRESS) {
+            throw new IllegalStateException("Upload is already completed");
+        }
+        // Chunks must be contiguous; a client resuming after a failure asks for the status and continues from there
+        if (offset != upload.getReceivedBytes()) {
+            throw new IllegalStateException("Expected offset " + upload.getReceivedBytes());
+        }
+
+        long remaining = upload.getTotalBytes() - offset;
+        long limit = length >= 0 ? length : Math.min(maxChunkBytes, remaining);
+        if (limit > maxChunkBytes || limit > remaining) {
+            throw new IllegalArgumentException("Chunk exceeds the allowed size");
+        }
+
+        Path partial = partialPath(uploadId);
+        Path scratch = partial.resolveSibling(uploadId + "." + UUID.randomUUID() + ".chunk");
+        try {
+            Files.createDirectories(partial.getParent());
+            long written = receive(data, scratch, limit, length < 0);
+            // A short body (client disconnect) still advances the offset by what actually arrived
+            long received = offset + written;
+            transactionTemplate.executeWithoutResult(status -> {
+                // The conditional update takes the row lock, so concurrent writers of this upload append one at a time
+                if (artworkUploadRepository.advanceReceivedBytes(uploadId, offset, received, LocalDateTime.now()) == 0) {
+                    throw new IllegalStateException("Upload changed while the chunk was received");
+                }
+                append(scratch, partial, offset, written);
+            });
+            return new ArtworkUploadStatus(uploadId, upload.getTotalBytes(), received,
+                    ArtworkUpload.State.IN_PROGRESS.name(), null);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store image chunk", e);
+        } finally {
+            try {
+                Files.deleteIfExists(scratch);
+            } catch (IOException e) {
+                log.warn("Failed to delete chunk scratch file {}: {}", scratch, e.getMessage());
+            }
+        }
+    }
+
+    private static long receive(InputStream data, Path scratch, long limit, boolean unknownLength) throws IOException {
+        try (FileChannel channel = FileChannel.open(scratch, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+             ReadableByteChannel source = Channels.newChannel(data)) {
+            long written = 0;
+            while (written < limit) {
+                long n = channel.transferFrom(source, written, limit - written);
+                if (n <= 0) {
+                    break;
+                }
+                written += n;
+            }
+            if (unknownLength && written == limit && data.read() != -1) {
+                throw new IllegalArgumentException("Chunk exceeds the allowed size");
+            }
+            return written;
+        }
+    }
+
+    // Only advertise bytes as received once they are on disk: the append is forced before the offset commits.
+    // The partial file must end exactly at the offset; it is missing or short if the sweeper removed it or the
+    // earlier chunks landed on another node, and the transaction then rolls back instead of leaving a gap
+    private static void append(Path scratch, Path partial, long offset, long length) {
+        try (FileChannel source = FileChannel.open(scratch, StandardOpenOption.READ);
+             FileChannel target = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (target.size() != offset) {
+                throw new IllegalStateException("Partial upload holds " + target.size() + " bytes, expected " + offset);
+            }
+            long copied = 0;
+            while (copied < length) {
+                long n = target.transferFrom(source, offset + copied, length - copied);
+                if (n <= 0) {
+                    throw new IllegalStateException("Chunk scratch file ended after " + copied + " of " + length + " bytes");
+                }
+                copied += n;
+            }
+            target.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store image chunk", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ArtworkUploadStatus getStatus(String email, String uploadId) {
+        ArtworkUpload upload = artworkUploadRepository.findById(uploadId)
+                .filter(u -> u.getUser().getEmail().equals(email))
+                .orElseThrow(() -> new RuntimeException("Upload not found"));
+        return toStatus(upload);
+    }
+
+    // The checksum is verified and the file published before the upload row is locked, so reading up to 250 MB
+    // holds neither a row lock nor a pooled connection. The locked transaction only creates the artwork row
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ArtworkDTO completeUpload(String email, String uploadId) {
+        ArtworkUpload upload = artworkUploadRepository.findByIdAndUser_Email(uploadId, email)
+                .orElseThrow(() -> new RuntimeException("Upload not found"));
+        if (upload.getState() == ArtworkUpload.State.COMPLETED) {
+            // Retried completion after a lost response
+            return artworkService.getArtwork(upload.getArtworkId());
+        }
+        if (upload.getReceivedBytes() != upload.getTotalBytes()) {
+            throw new IllegalStateException("Upload is incomplete: " + upload.getReceivedBytes() + " of "
+                    + upload.getTotalBytes() + " bytes received");
+        }
+
+        // Once every byte is received no chunk can change the partial file, so it can be read unlocked
+        Path partial = partialPath(uploadId);
+        String checksum = sha256(partial);
+        if (!checksum.equals(upload.getSha256())) {
+            throw new IllegalArgumentException("Checksum mismatch");
+        }
+
+        // The partial file stays until the artwork row commits, so a failed completion can simply be retried
+        String filename = UUID.randomUUID() + "_" + upload.getOriginalFilename();
+        Path target = Paths.get(uploadDir).resolve(filename);
+        try {
+            Files.createDirectories(target.getParent());
+            publish(partial, target);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store image file", e);
+        }
+
+        try {
+            return transactionTemplate.execute(status -> createArtwork(email, uploadId, partial, target, filename));
+        } catch (RuntimeException e) {
+            deleteQuietly(target);
+            throw e;
+        }
+    }
+
+    private ArtworkDTO createArtwork(String email, String uploadId, Path partial, Path target, String filename) {
+        ArtworkUpload upload = lockOwnedUpload(email, uploadId);
+        if (upload.getState() == ArtworkUpload.State.COMPLETED) {
+            // A concurrent completion won; this call's copy of the file is not needed
+            deleteQuietly(target);
+            return artworkService.getArtwork(upload.getArtworkId());
+        }
+        deleteAfterCommit(partial);
+
+        ArtworkDTO artworkDTO = new ArtworkDTO();
+        artworkDTO.setTitle(upload.getTitle());
+        artworkDTO.setDescription(upload.getDescription());
+        artworkDTO.setPrice(upload.getPrice());
+        artworkDTO.setCategory(upload.getCategory());
+        artworkDTO.setStatus(upload.getStatus());
+        artworkDTO.setUserId(upload.getUser().getId());
+        artworkDTO.setImageUrl("/uploads/" + filename);
+        ArtworkDTO created = artworkService.createArtwork(artworkDTO);
+
+        upload.setState(ArtworkUpload.State.COMPLETED);
+        upload.setArtworkId(created.getId());
+        artworkUploadRepository.save(upload);
+        return created;
+    }
+
+    @Override
+    public void abortUpload(String email, String uploadId) {
+        ArtworkUpload upload = lockOwnedUpload(email, uploadId);
+        artworkUploadRepository.delete(upload);
+        deletePartial(uploadId);
+    }
+
+    @Scheduled(cron = "${app.upload.sweep-cron:0 15 * * * *}")
+    public void sweepAbandonedUploads() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(abandonAfterHours);
+        for (ArtworkUpload.State state : ArtworkUpload.State.values()) {
+            for (ArtworkUpload upload : artworkUploadRepository.findByStateAndUpdatedAtBefore(state, cutoff)) {
+                deletePartial(upload.getId());
+                artworkUploadRepository.delete(upload);
+            }
+        }
+    }
+
+    private ArtworkUpload lockOwnedUpload(String email, String uploadId) {
+        return artworkUploadRepository.findByIdForUpdate(uploadId)
+                .filter(u -> u.getUser().getEmail().equals(email))
+                .orElseThrow(() -> new RuntimeException("Upload not found"));
+    }
+
+    private Path partialPath(String uploadId) {
+        return Paths.get(partialDir).resolve(uploadId + ".part");
+    }
+
+    private void deletePartial(String uploadId) {
+        try {
+            Files.deleteIfExists(partialPath(uploadId));
+        } catch (IOException e) {
+            log.warn("Failed to delete partial upload {}: {}", uploadId, e.getMessage());
+        }
+    }
+
+    // A hard link when the upload dirs share a file system, so even a 250 MB image is not copied
+    private static void publish(Path partial, Path target) throws IOException {
+        try {
+            Files.createLink(target, partial);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(partial, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // The published copy replaces the partial file once the artwork row commits
+    private void deleteAfterCommit(Path partial) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteQuietly(partial);
+            }
+        });
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete upload file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static String sha256(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to verify image checksum", e);
+        }
+    }
+
+    private static String sanitizeFilename(String filename) {
+        String name = filename.substring(filename.replace('\\', '/').lastIndexOf('/') + 1);
+        String cleaned = name.replaceAll("[^A-Za-z0-9._-]", "_");
+        return cleaned.isBlank() ? "image" : cleaned;
+    }
+
+    private static ArtworkUploadStatus toStatus(ArtworkUpload upload) {
+        return new ArtworkUploadStatus(upload.getId(), upload.getTotalBytes(), upload.getReceivedBytes(),
+                upload.getState().name(), upload.getArtworkId());
+    }
+}
@@ -1,23 +1,28 @@
 package com.gallerio.service.impl;
 
+import com.gallerio.model.EmailOutboxMessage;
+import com.gallerio.repository.EmailOutboxRepository;
 import com.gallerio.service.EmailService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+// Writes to the outbox only; EmailOutboxDispatcher delivers in the background so callers never wait on SMTP
 @Service
 public class EmailServiceImpl implements EmailService {
 
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutboxRepository emailOutboxRepository;
 
     @Override
+    @Transactional
     public void sendEmail(String to, String subject, String text) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(text);
-        mailSender.send(message);
+        emailOutboxRepository.save(EmailOutboxMessage.builder()
+                .recipient(to)
+                .subject(subject)
+                .body(text)
+                .status(EmailOutboxMessage.Status.PENDING)
+                .attempts(0)
+                .build());
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package com.gallerio.service.impl;
+
+/**
+ * Single-node bus: handlers run locally after the commit and nothing leaves the JVM. Used by tests and
+ * single-instance deployments (app.invalidation.bus=memory).
+ */
+public class InMemoryInvalidationBus extends AbstractInvalidationBus {
+
+    @Override
+    protected void broadcast(String region, String key) {
+    }
+}
@@ -1,15 +1,32 @@
 package com.gallerio.service.impl;
 
+import com.gallerio.dto.ConversationSummaryDTO;
+import com.gallerio.dto.CursorPage;
+import com.gallerio.dto.KeysetCursor;
+import com.gallerio.mapper.MessageMapper;
+import com.gallerio.model.Conversation;
+import com.gallerio.repository.ConversationRepository;
 import com.gallerio.repository.MessageRepository;
 import com.gallerio.repository.UserRepository;
 import com.gallerio.model.Message;
+import com.gallerio.model.Role;
 import com.gallerio.model.User;
+import com.gallerio.service.InvalidationBus;
 import com.gallerio.service.MessageService;
+import com.gallerio.service.MessageStreamRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -18,6 +35,18 @@ public class MessageServiceImpl implements MessageService {
     private MessageRepository messageRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private ConversationRepository conversationRepository;
+    @Autowired
+    private MessageMapper messageMapper;
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Value("${app.messages.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.messages.bulk.max-ids:1000}")
+    private int maxBulkIds;
 
     @Override
     public Message sendMessage(User sender, User recipient, String content, String subject) {
@@ -28,7 +57,17 @@ public class MessageServiceImpl implements MessageService {
                 .subject(subject)
                 .read(false)
                 .build();
-        return messageRepository.save(message);
+        Message saved = messageRepository.save(message);
+
+        Long lowId = Math.min(sender.getId(), recipient.getId());
+        Long highId = Math.max(sender.getId(), recipient.getId());
+        conversationRepository.insertIfAbsent(lowId, highId, saved.getCreatedAt());
+        conversationRepository.recordMessage(lowId, highId, saved.getId(), sender.getId(), recipient.getId(),
+                preview(content), saved.getCreatedAt());
+        // Pushed to open streams on every node once this transaction commits
+        invalidationBus.publish(MessageStreamRegistry.REGION,
+                MessageStreamRegistry.key(sender.getId(), recipient.getId(), saved.getId()));
+        return saved;
     }
 
     @Override
@@ -41,14 +80,160 @@ public class MessageServiceImpl implements MessageService {
         return messageRepository.findConversation(user1, user2);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Message> getInboxPage(User user, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<Message> messages;
+        if (cursor == null || cursor.isBlank()) {
+            messages = messageRepository.findInboxFirstPage(user.getId(), fetchLimit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            messages = messageRepository.findInboxPageAfter(user.getId(), position.createdAt(), position.id(),
+                    fetchLimit);
+        }
+        return toPage(messages, pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Message> getConversationPage(User user, User otherUser, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<Message> messages;
+        if (cursor == null || cursor.isBlank()) {
+            messages = messageRepository.findConversationFirstPage(user.getId(), otherUser.getId(), fetchLimit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            messages = messageRepository.findConversationPageAfter(user.getId(), otherUser.getId(),
+                    position.createdAt(), position.id(), fetchLimit);
+        }
+        return toPage(messages, pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ConversationSummaryDTO> getConversations(User user, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<Conversation> threads;
+        if (cursor == null || cursor.isBlank()) {
+            threads = conversationRepository.findThreadsFirstPage(user.getId(), fetchLimit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            threads = conversationRepository.findThreadsPageAfter(user.getId(), position.createdAt(), position.id(),
+                    fetchLimit);
+        }
+
+        boolean hasMore = threads.size() > pageSize;
+        List<Conversation> page = hasMore ? threads.subList(0, pageSize) : threads;
+        String nextCursor = null;
+        if (hasMore) {
+            Conversation last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getLastMessageAt(), last.getId()).encode();
+        }
+        List<ConversationSummaryDTO> items = page.stream()
+                .map(conversation -> messageMapper.toSummary(conversation, user.getId()))
+                .collect(Collectors.toList());
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getUnreadCount(User user) {
+        return conversationRepository.countUnread(user.getId());
+    }
+
+    private static String preview(String content) {
+        if (content == null || content.length() <= Conversation.PREVIEW_LENGTH) {
+            return content;
+        }
+        // Never cut a surrogate pair in half
+        int end = Conversation.PREVIEW_LENGTH;
+        if (Character.isHighSurrogate(content.charAt(end - 1))) {
+            end--;
+        }
+        return content.substring(0, end);
+    }
+
+    private int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+
+    // One extra row was fetched to learn whether another page exists without a COUNT query
+    private CursorPage<Message> toPage(List<Message> messages, int pageSize) {
+        boolean hasMore = messages.size() > pageSize;
+        List<Message> items = hasMore ? messages.subList(0, pageSize) : messages;
+        String nextCursor = null;
+        if (hasMore) {
+            Message last = items.get(items.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
     @Override
     public void markAsRead(Long messageId, User user) {
         Message message = messageRepository.findById(messageId)
                 .orElseThrow(() -> new RuntimeException("Message not found"));
-        if (message.getRecipient().getId().equals(user.getId())) {
-            message.setRead(true);
-            messageRepository.save(message);
+        Long senderId = message.getSender().getId();
+        if (messageRepository.markReadIfUnread(messageId, user.getId()) == 1) {
+            conversationRepository.decrementUnread(Math.min(senderId, user.getId()), Math.max(senderId, user.getId()),
+                    user.getId(), 1);
+        }
+    }
+
+    @Override
+    public int markConversationRead(User user, Long otherUserId, Long upToMessageId) {
+        int updated = messageRepository.markConversationReadUpTo(user.getId(), otherUserId, upToMessageId);
+        if (updated > 0) {
+            conversationRepository.recountUnread(user.getId(), List.of(otherUserId));
+        }
+        return updated;
+    }
+
+    @Override
+    public int markAsRead(Collection<Long> messageIds, User user) {
+        Set<Long> ids = new LinkedHashSet<>(messageIds);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        if (ids.size() > maxBulkIds) {
+            throw new IllegalArgumentException("At most " + maxBulkIds + " ids per request");
+        }
+        int updated = messageRepository.markReadByIds(user.getId(), ids);
+        if (updated > 0) {
+            conversationRepository.recountUnread(user.getId(),
+                    messageRepository.findSenderIdsByRecipientAndIds(user.getId(), ids));
+        }
+        return updated;
+    }
+
+    @Override
+    public int broadcast(User sender, Collection<Long> recipientIds, String content, String subject) {
+        // One call reaches up to max-ids inboxes, so it is an announcement tool for artists and admins
+        if (sender.getRole() != Role.ARTIST && sender.getRole() != Role.ADMIN) {
+            throw new IllegalStateException("Only artists and admins can broadcast messages");
+        }
+        Set<Long> recipients = new LinkedHashSet<>(recipientIds);
+        recipients.remove(sender.getId());
+        if (recipients.isEmpty()) {
+            return 0;
+        }
+        if (recipients.size() > maxBulkIds) {
+            throw new IllegalArgumentException("At most " + maxBulkIds + " recipients per broadcast");
+        }
+        // Truncated to what the column stores, so the copies can be found again by timestamp
+        LocalDateTime sentAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        int sent = messageRepository.insertBroadcast(sender.getId(), recipients, content, subject, sentAt);
+        conversationRepository.insertBroadcastIfAbsent(sender.getId(), recipients, sentAt);
+        conversationRepository.recordBroadcast(sender.getId(), recipients, preview(content), sentAt);
+        for (Message message : messageRepository.findBySenderIdAndCreatedAt(sender.getId(), sentAt)) {
+            invalidationBus.publish(MessageStreamRegistry.REGION,
+                    MessageStreamRegistry.key(sender.getId(), message.getRecipient().getId(), message.getId()));
         }
+        return sent;
     }
 
     @Override
@@ -0,0 +1,184 @@
+package com.gallerio.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Invalidation bus over PostgreSQL LISTEN/NOTIFY. pg_notify runs in the publishing transaction, so the other
+ * nodes hear about a change exactly when it commits and never for a rolled-back one. A transaction's messages
+ * are deduplicated and sent together just before it commits. Each node keeps one
+ * dedicated, unpooled connection in LISTEN mode; after a reconnect it drops every region, since messages
+ * sent while it was disconnected are lost.
+ */
+@Slf4j
+public class PostgresInvalidationBus extends AbstractInvalidationBus {
+
+    static final String CHANNEL = "gallerio_invalidation";
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final String nodeId;
+    private final long reconnectDelayMillis;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgresInvalidationBus(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties,
+                                   String nodeId, long reconnectDelayMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.nodeId = nodeId;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        listener = new Thread(this::listen, "invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        listener.interrupt();
+        listener.join(2 * POLL_TIMEOUT_MILLIS);
+    }
+
+    @Override
+    protected void broadcast(String region, String key) {
+        String message = nodeId + '|' + region + '|' + key;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sendNotifications(List.of(message));
+            return;
+        }
+        // Coalesced per transaction, so a bulk change costs a few NOTIFYs rather than one per key
+        PendingMessages pending = (PendingMessages) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingMessages();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            PendingMessages batch = pending;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    batch.sent = true;
+                    sendNotifications(batch.messages);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PostgresInvalidationBus.this);
+                }
+            });
+        }
+        if (pending.sent) {
+            // Published by a synchronization that ran after ours
+            sendNotifications(List.of(message));
+        } else {
+            pending.messages.add(message);
+        }
+    }
+
+    // Newline-separated messages, packed up to the 8000-byte NOTIFY payload limit
+    private void sendNotifications(Collection<String> messages) {
+        StringBuilder payload = new StringBuilder();
+        int payloadBytes = 0;
+        for (String message : messages) {
+            int messageBytes = message.getBytes(StandardCharsets.UTF_8).length;
+            if (payloadBytes > 0 && payloadBytes + 1 + messageBytes > MAX_PAYLOAD_BYTES) {
+                jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, payload.toString());
+                payload.setLength(0);
+                payloadBytes = 0;
+            }
+            if (payloadBytes > 0) {
+                payload.append('\n');
+                payloadBytes++;
+            }
+            payload.append(message);
+            payloadBytes += messageBytes;
+        }
+        if (payloadBytes > 0) {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, payload.toString());
+        }
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnecting) {
+                    deliverAll();
+                }
+                reconnecting = true;
+                log.info("Listening for cache invalidations on {} as node {}", CHANNEL, nodeId);
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Invalidation listener lost its connection, retrying in {} ms", reconnectDelayMillis, e);
+                    sleep();
+                }
+            }
+        }
+    }
+
+    void receive(String payload) {
+        for (String message : payload.split("\n")) {
+            String[] parts = message.split("\\|", 3);
+            if (parts.length != 3) {
+                log.warn("Ignoring malformed invalidation message: {}", message);
+                continue;
+            }
+            // This node already ran its handlers after its own commit
+            if (!parts[0].equals(nodeId)) {
+                deliver(parts[1], parts[2]);
+            }
+        }
+    }
+
+    private static final class PendingMessages {
+        private final Set<String> messages = new LinkedHashSet<>();
+        private boolean sent;
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(reconnectDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -2,18 +2,18 @@
 -- This script creates default users for testing purposes
 
 -- Insert default admin user
-INSERT INTO _user (id, first_name, last_name, email, password, role, location, bio, profile_photo, enabled) VALUES 
-(1, 'Admin', 'User', 'admin@gallerio.com', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2.uheWG/igi', 'ADMIN', 'Kigali, Rwanda', 'System Administrator', null, true)
+INSERT INTO _user (id, first_name, last_name, email, password, role, location, bio, enabled) VALUES 
+(1, 'Admin', 'User', 'admin@gallerio.com', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2.uheWG/igi', 'ADMIN', 'Kigali, Rwanda', 'System Administrator', true)
 ON CONFLICT (email) DO NOTHING;
 
 -- Insert default artist user
-INSERT INTO _user (id, first_name, last_name, email, password, role, location, bio, profile_photo, enabled) VALUES 
-(2, 'Jean', 'Mukamana', 'artist@gallerio.com', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2.uheWG/igi', 'ARTIST', 'Kigali, Rwanda', 'Contemporary Rwandan Artist specializing in traditional and modern art forms', null, true)
+INSERT INTO _user (id, first_name, last_name, email, password, role, location, bio, enabled) VALUES 
+(2, 'Jean', 'Mukamana', 'artist@gallerio.com', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2.uheWG/igi', 'ARTIST', 'Kigali, Rwanda', 'Contemporary Rwandan Artist specializing in traditional and modern art forms', true)
 ON CONFLICT (email) DO NOTHING;
 
 -- Insert default collector user
-INSERT INTO _user (id, first_name, last_name, email,  password, role, location, bio, profile_photo, enabled) VALUES 
-(3, 'Marie', 'Uwimana', 'collector@gallerio.com', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2.uheWG/igi', 'COLLECTOR', 'Kigali, Rwanda', 'Art collector and enthusiast passionate about Rwandan contemporary art', null, true)
+INSERT INTO _user (id, first_name, last_name, email,  password, role, location, bio, enabled) VALUES 
+(3, 'Marie', 'Uwimana', 'collector@gallerio.com', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2.uheWG/igi', 'COLLECTOR', 'Kigali, Rwanda', 'Art collector and enthusiast passionate about Rwandan contemporary art', true)
 ON CONFLICT (email) DO NOTHING;
 
 -- Insert sample artwork (optional)
@@ -0,0 +1,40 @@
+package com.gallerio;
+
+import com.gallerio.model.Artwork;
+import com.gallerio.model.Role;
+import com.gallerio.model.User;
+
+/**
+ * Unsaved entities for the persistence tests; callers save them and adjust what they care about.
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    public static User user(String email, Role role) {
+        return user(email, "Test", role);
+    }
+
+    public static User user(String email, String firstName, Role role) {
+        return User.builder()
+                .firstName(firstName)
+                .lastName("User")
+                .email(email)
+                .password("secret")
+                .role(role)
+                .build();
+    }
+
+    public static Artwork artwork(String title, double price, User owner) {
+        Artwork artwork = new Artwork();
+        artwork.setTitle(title);
+        artwork.setDescription("Test artwork");
+        artwork.setPrice(price);
+        artwork.setCategory("Painting");
+        artwork.setImageUrl("/uploads/" + title.toLowerCase().replace(' ', '-') + ".jpg");
+        artwork.setStatus(Artwork.STATUS_AVAILABLE);
+        artwork.setUser(owner);
+        return artwork;
+    }
+}
@@ -0,0 +1,109 @@
+package com.gallerio.benchmark;
+
+import com.gallerio.model.Role;
+import com.gallerio.model.User;
+import com.gallerio.security.JwtAuthenticationFilter;
+import com.gallerio.security.JwtTokenProvider;
+import com.gallerio.security.PrincipalCache;
+import com.gallerio.service.impl.InMemoryInvalidationBus;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of JWT handling in the authentication filter.
+ * legacyDoubleParse reproduces the old path: a fresh key and parser for validateToken and again for
+ * getUsernameFromJWT. The other benchmarks run the real filter, with and without the verified-token LRU.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.gallerio.benchmark.JwtFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET =
+            "lSOLIfCW82fxj48H/VC1JbmOzfqAE3DVEnKRcyVD5iXC5e1/cJzk8POxpi/m/BwGaWWicuiErTFzammpk8OX6A==";
+
+    private final FilterChain noopChain = (request, response) -> { };
+
+    private String token;
+    private MockHttpServletRequest request;
+    private JwtAuthenticationFilter filter;
+    private JwtAuthenticationFilter filterWithTokenCache;
+
+    @Setup
+    public void setUp() {
+        User user = User.builder().id(1L).firstName("Marie").lastName("Uwimana")
+                .email("collector@gallerio.com").password("hash").role(Role.COLLECTOR).build();
+        UserDetailsService userDetailsService = username -> user;
+
+        JwtTokenProvider provider = newProvider(0);
+        JwtTokenProvider cachingProvider = newProvider(1024);
+        token = provider.generateToken(user);
+
+        request = new MockHttpServletRequest("GET", "/api/users/profile");
+        request.addHeader("Authorization", "Bearer " + token);
+
+        filter = new JwtAuthenticationFilter(provider, userDetailsService,
+                new PrincipalCache(10_000, 300, new SimpleMeterRegistry(), new InMemoryInvalidationBus()), null);
+        filterWithTokenCache = new JwtAuthenticationFilter(cachingProvider, userDetailsService,
+                new PrincipalCache(10_000, 300, new SimpleMeterRegistry(), new InMemoryInvalidationBus()), null);
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public String legacyDoubleParse() {
+        Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build().parseClaimsJws(token);
+        Claims claims = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                .parseClaimsJws(token).getBody();
+        return claims.getSubject();
+    }
+
+    @Benchmark
+    public Object filterSingleParse() throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), noopChain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Object filterVerifiedTokenCache() throws Exception {
+        filterWithTokenCache.doFilter(request, new MockHttpServletResponse(), noopChain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static JwtTokenProvider newProvider(int verifiedTokenCacheSize) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", 86_400_000);
+        ReflectionTestUtils.setField(provider, "verifiedTokenCacheSize", verifiedTokenCacheSize);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,128 @@
+package com.gallerio.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent image fetch load test against a running backend. Each worker loops over the given paths until the
+ * duration elapses and records per-request latency; the report prints throughput in bytes/sec and p50/p99/max.
+ * Pass --revalidate to send If-None-Match with the ETag from the first response (measures the 304 path).
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.gallerio.benchmark.MediaLoadTest
+ *   -Dexec.args="http://localhost:8080 /uploads/a.jpg /uploads/derived/a-medium.jpg --concurrency 64 --seconds 30"
+ */
+public class MediaLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        List<String> paths = new ArrayList<>();
+        String baseUrl = null;
+        int concurrency = 32;
+        int seconds = 20;
+        boolean revalidate = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--concurrency" -> concurrency = Integer.parseInt(args[++i]);
+                case "--seconds" -> seconds = Integer.parseInt(args[++i]);
+                case "--revalidate" -> revalidate = true;
+                default -> {
+                    if (baseUrl == null) {
+                        baseUrl = args[i];
+                    } else {
+                        paths.add(args[i]);
+                    }
+                }
+            }
+        }
+        if (baseUrl == null || paths.isEmpty()) {
+            System.err.println("Usage: MediaLoadTest <baseUrl> <path>... [--concurrency N] [--seconds N] [--revalidate]");
+            System.exit(2);
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(concurrency))
+                .build();
+        List<URI> uris = paths.stream().map(URI.create(baseUrl)::resolve).toList();
+        String[] etags = new String[uris.size()];
+        if (revalidate) {
+            for (int i = 0; i < uris.size(); i++) {
+                etags[i] = client.send(HttpRequest.newBuilder(uris.get(i)).build(), HttpResponse.BodyHandlers.discarding())
+                        .headers().firstValue("ETag").orElse(null);
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong bytes = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            int offset = w;
+            futures.add(workers.submit(() -> {
+                long[] latencies = new long[4096];
+                int n = 0;
+                for (int i = offset; System.nanoTime() < deadline; i++) {
+                    int index = i % uris.size();
+                    HttpRequest.Builder request = HttpRequest.newBuilder(uris.get(index));
+                    if (etags[index] != null) {
+                        request.header("If-None-Match", etags[index]);
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                        bytes.addAndGet(response.body().length);
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    if (n == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, n * 2);
+                    }
+                    latencies[n++] = System.nanoTime() - start;
+                }
+                return Arrays.copyOf(latencies, n);
+            }));
+        }
+        List<long[]> perWorker = new ArrayList<>();
+        for (Future<long[]> future : futures) {
+            perWorker.add(future.get());
+        }
+        workers.shutdown();
+
+        int total = perWorker.stream().mapToInt(l -> l.length).sum();
+        long[] all = new long[total];
+        int position = 0;
+        for (long[] latencies : perWorker) {
+            System.arraycopy(latencies, 0, all, position, latencies.length);
+            position += latencies.length;
+        }
+        Arrays.sort(all);
+
+        System.out.printf("requests: %d (%d errors) in %ds with %d workers%n", total, errors.get(), seconds, concurrency);
+        System.out.printf("throughput: %.1f req/s, %.2f MB/s%n",
+                (double) total / seconds, bytes.get() / (double) seconds / (1024 * 1024));
+        if (total > 0) {
+            System.out.printf("latency ms: p50=%.2f p99=%.2f max=%.2f%n",
+                    percentile(all, 0.50), percentile(all, 0.99), all[total - 1] / 1e6);
+        }
+        System.exit(0);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,107 @@
+package com.gallerio.benchmark;
+
+import com.gallerio.dto.UserSuggestionDTO;
+import com.gallerio.service.UserTypeaheadIndex;
+import com.gallerio.service.impl.InMemoryInvalidationBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead lookups over 1M synthetic users: the prefix index against a linear case-insensitive "contains" scan,
+ * which is the in-memory lower bound of what LOWER(name) LIKE '%q%' costs the database per keystroke.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.gallerio.benchmark.UserTypeaheadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class UserTypeaheadBenchmark {
+
+    private static final String[] SYLLABLES = {
+            "an", "ba", "ca", "de", "el", "fa", "ga", "ha", "io", "ja", "ka", "la", "ma", "ne", "ol",
+            "pa", "qu", "ra", "sa", "ta", "ul", "va", "wi", "xa", "yo", "za", "ri", "lo", "mi", "so"
+    };
+
+    @Param({"1000000"})
+    private int users;
+
+    @Param({"m", "mar", "maria", "ma ro"})
+    private String query;
+
+    private UserTypeaheadIndex index;
+    private List<UserSuggestionDTO> table;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        index = new UserTypeaheadIndex(null, new InMemoryInvalidationBus());
+        ReflectionTestUtils.setField(index, "maxResults", 10);
+        ReflectionTestUtils.setField(index, "scanBudget", 5000);
+        table = new ArrayList<>(users);
+        for (long id = 1; id <= users; id++) {
+            UserSuggestionDTO user = new UserSuggestionDTO(id, name(random), name(random), null);
+            table.add(user);
+            index.put(user);
+        }
+    }
+
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        int length = 2 + random.nextInt(2);
+        for (int i = 0; i < length; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    @Benchmark
+    public List<UserSuggestionDTO> prefixIndex() {
+        return index.suggest(query, 10);
+    }
+
+    @Benchmark
+    public List<UserSuggestionDTO> containsScan() {
+        String needle = query.toLowerCase(Locale.ROOT);
+        List<UserSuggestionDTO> matches = new ArrayList<>();
+        for (UserSuggestionDTO user : table) {
+            if (user.getFirstName().toLowerCase(Locale.ROOT).contains(needle)
+                    || user.getLastName().toLowerCase(Locale.ROOT).contains(needle)) {
+                matches.add(user);
+                if (matches.size() == 10) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserTypeaheadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
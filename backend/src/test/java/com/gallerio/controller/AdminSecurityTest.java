@@ -0,0 +1,97 @@
+package com.gallerio.controller;
+
+import com.gallerio.config.SecurityConfig;
+import com.gallerio.dto.PageResponse;
+import com.gallerio.security.JwtTokenProvider;
+import com.gallerio.security.PrincipalCache;
+import com.gallerio.security.TokenVersionRegistry;
+import com.gallerio.service.AdminService;
+import com.gallerio.service.ArtistSalesService;
+import com.gallerio.service.ArtworkDerivativeService;
+import com.gallerio.service.ArtworkSearchService;
+import com.gallerio.service.OrderReconciliationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AdminController.class)
+@Import(SecurityConfig.class)
+class AdminSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AdminService adminService;
+
+    @MockitoBean
+    private OrderReconciliationService orderReconciliationService;
+
+    @MockitoBean
+    private ArtistSalesService artistSalesService;
+
+    @MockitoBean
+    private ArtworkDerivativeService artworkDerivativeService;
+
+    @MockitoBean
+    private ArtworkSearchService artworkSearchService;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    @MockitoBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockitoBean
+    private PrincipalCache principalCache;
+
+    @MockitoBean
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Test
+    void orderConsoleAndExportAreForAdminsOnly() throws Exception {
+        mockMvc.perform(get("/api/admin/orders").with(user("collector@gallerio.test").authorities(() -> "COLLECTOR")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/admin/orders/export").with(user("artist@gallerio.test").authorities(() -> "ARTIST")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/admin/orders")).andExpect(status().isUnauthorized());
+        verifyNoInteractions(adminService);
+
+        when(adminService.getOrders(any(), anyInt(), anyInt()))
+                .thenReturn(new PageResponse<>(List.of(), 0, 50, 0, 0));
+        mockMvc.perform(get("/api/admin/orders").with(user("admin@gallerio.test").authorities(() -> "ADMIN")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void collectorsCannotReconcileOrders() throws Exception {
+        mockMvc.perform(post("/api/admin/orders/reconcile")
+                        .with(user("collector@gallerio.test").authorities(() -> "COLLECTOR"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"orderId\": 1, \"status\": \"PAID\"}]"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(multipart("/api/admin/orders/reconcile")
+                        .file(new MockMultipartFile("file", "orders.csv", "text/csv", "1,PAID\n".getBytes()))
+                        .with(user("collector@gallerio.test").authorities(() -> "COLLECTOR")))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(orderReconciliationService);
+    }
+}
@@ -0,0 +1,109 @@
+package com.gallerio.repository;
+
+import com.gallerio.dto.ArtistDirectoryEntry;
+import com.gallerio.model.Artwork;
+import com.gallerio.model.Role;
+import com.gallerio.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ArtistDirectoryQueryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User zola;
+    private User amani;
+    private User keza;
+
+    @BeforeEach
+    void setUp() {
+        zola = persistUser("Zola", "Uwase", Role.ARTIST);
+        amani = persistUser("Amani", "Bizimana", Role.ARTIST);
+        keza = persistUser("Keza", "Mugisha", Role.ARTIST);
+        persistUser("Colin", "Collector", Role.COLLECTOR);
+
+        persistArtwork(zola, "zola-1", null);
+        persistArtwork(amani, "amani-1", "/uploads/derived/amani-1-thumb.jpg");
+        persistArtwork(amani, "amani-2", null);
+        persistArtwork(amani, "amani-3", "/uploads/derived/amani-3-thumb.jpg");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void byNameListsOnlyArtistsWithCountsAndNewestThumbnail() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<ArtistDirectoryEntry> page = userRepository.findArtistDirectoryByName(PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).extracting(ArtistDirectoryEntry::getLastName)
+                .containsExactly("Bizimana", "Mugisha", "Uwase");
+        ArtistDirectoryEntry amaniEntry = page.getContent().get(0);
+        assertThat(amaniEntry.getArtworkCount()).isEqualTo(3);
+        assertThat(amaniEntry.getLatestArtworkThumbnailUrl()).isEqualTo("/uploads/derived/amani-3-thumb.jpg");
+        // Falls back to the original image until variants exist, and to null without artworks
+        assertThat(page.getContent().get(2).getLatestArtworkThumbnailUrl()).isEqualTo("/uploads/zola-1.jpg");
+        assertThat(page.getContent().get(1).getArtworkCount()).isZero();
+        assertThat(page.getContent().get(1).getLatestArtworkThumbnailUrl()).isNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void byArtworkCountAndNewestOrderAndPage() {
+        assertThat(userRepository.findArtistDirectoryByArtworkCount(PageRequest.of(0, 10)).getContent())
+                .extracting(ArtistDirectoryEntry::getId)
+                .containsExactly(amani.getId(), zola.getId(), keza.getId());
+
+        Page<ArtistDirectoryEntry> newest = userRepository.findArtistDirectoryByNewest(PageRequest.of(0, 2));
+        assertThat(newest.getContent()).extracting(ArtistDirectoryEntry::getId)
+                .containsExactly(keza.getId(), amani.getId());
+        assertThat(newest.getTotalElements()).isEqualTo(3);
+        assertThat(newest.getTotalPages()).isEqualTo(2);
+    }
+
+    private User persistUser(String firstName, String lastName, Role role) {
+        return entityManager.persist(User.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(firstName.toLowerCase() + "@gallerio.test")
+                .password("secret")
+                .role(role)
+                .build());
+    }
+
+    private void persistArtwork(User artist, String name, String thumbnailUrl) {
+        Artwork artwork = new Artwork();
+        artwork.setTitle(name);
+        artwork.setDescription("Description");
+        artwork.setPrice(100.0);
+        artwork.setCategory("PAINTING");
+        artwork.setImageUrl("/uploads/" + name + ".jpg");
+        artwork.setThumbnailUrl(thumbnailUrl);
+        artwork.setStatus("AVAILABLE");
+        artwork.setUser(artist);
+        entityManager.persist(artwork);
+    }
+}
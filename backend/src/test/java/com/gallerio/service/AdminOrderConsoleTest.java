@@ -0,0 +1,143 @@
+package com.gallerio.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gallerio.dto.AdminOrderFilter;
+import com.gallerio.dto.AdminOrderRow;
+import com.gallerio.dto.PageResponse;
+import com.gallerio.model.Artwork;
+import com.gallerio.model.Order;
+import com.gallerio.model.Role;
+import com.gallerio.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.gallerio.TestFixtures.artwork;
+import static com.gallerio.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AdminService.class, OrderService.class, ArtistSalesService.class, JacksonAutoConfiguration.class})
+class AdminOrderConsoleTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User painter;
+    private User sculptor;
+    private User collector;
+
+    @BeforeEach
+    void setUp() {
+        painter = entityManager.persist(user("painter@gallerio.test", "Ada", Role.ARTIST));
+        sculptor = entityManager.persist(user("sculptor@gallerio.test", "Rodin", Role.ARTIST));
+        collector = entityManager.persist(user("collector@gallerio.test", "Smith, Jr.", Role.COLLECTOR));
+        User other = entityManager.persist(user("other@gallerio.test", "=HYPERLINK()", Role.COLLECTOR));
+
+        // 30 orders over three days, alternating artists, customers and statuses
+        for (int i = 0; i < 30; i++) {
+            User artist = i % 2 == 0 ? painter : sculptor;
+            Artwork artwork = entityManager.persist(artwork("Piece " + i, 300.0, artist));
+            Order order = entityManager.persist(Order.builder()
+                    .artwork(artwork)
+                    .customer(i % 3 == 0 ? collector : other)
+                    .phoneNumber("0780000000")
+                    .paymentMethod("mtn")
+                    .paymentStatus(i % 5 == 0 ? Order.PaymentStatus.PAID : Order.PaymentStatus.PENDING_PAYMENT)
+                    .build());
+            entityManager.flush();
+            entityManager.getEntityManager()
+                    .createQuery("UPDATE Order o SET o.createdAt = :createdAt WHERE o.id = :id")
+                    .setParameter("createdAt", DAY.plusDays(i % 3).atTime(12, i))
+                    .setParameter("id", order.getId())
+                    .executeUpdate();
+        }
+        entityManager.clear();
+    }
+
+    @Test
+    void pagesAreOneJoinAndOneCountAndHonourEveryFilter() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        PageResponse<AdminOrderRow> first = adminService.getOrders(new AdminOrderFilter(), 0, 12);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(first.getTotalElements()).isEqualTo(30);
+        assertThat(first.getTotalPages()).isEqualTo(3);
+        assertThat(first.getItems()).hasSize(12);
+        assertThat(first.getItems().get(0).getCreatedAt())
+                .isAfterOrEqualTo(first.getItems().get(11).getCreatedAt());
+
+        AdminOrderFilter filter = new AdminOrderFilter();
+        filter.setStatus(Order.PaymentStatus.PAID);
+        filter.setArtistId(painter.getId());
+        filter.setCustomerId(collector.getId());
+        filter.setFrom(DAY);
+        filter.setTo(DAY);
+        List<AdminOrderRow> rows = adminService.getOrders(filter, 0, 50).getItems();
+
+        // i divisible by 2, 3 and 5 on the first day: i = 0 only (30 is out of range)
+        assertThat(rows).extracting(AdminOrderRow::getArtworkTitle).containsExactly("Piece 0");
+        assertThat(rows.get(0).getArtistFirstName()).isEqualTo("Ada");
+        assertThat(rows.get(0).getCustomerEmail()).isEqualTo("collector@gallerio.test");
+    }
+
+    @Test
+    void csvExportEscapesTextAndDefusesFormulas() throws Exception {
+        AdminOrderFilter filter = new AdminOrderFilter();
+        filter.setArtistId(sculptor.getId());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = adminService.exportOrders(filter, AdminService.ExportFormat.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(written).isEqualTo(15);
+        assertThat(lines).hasSize(16);
+        assertThat(lines.get(0)).startsWith("id,paymentStatus,");
+        assertThat(lines).anyMatch(line -> line.contains(",\"Smith, Jr.\","));
+        assertThat(lines).anyMatch(line -> line.contains(",'=HYPERLINK(),"));
+    }
+
+    @Test
+    void ndjsonExportWritesOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = adminService.exportOrders(new AdminOrderFilter(), AdminService.ExportFormat.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(written).isEqualTo(30);
+        assertThat(lines).hasSize(30);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("artworkTitle").asText()).startsWith("Piece ");
+        assertThat(first.has("password")).isFalse();
+    }
+}
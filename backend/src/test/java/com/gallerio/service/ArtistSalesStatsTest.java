@@ -0,0 +1,165 @@
+package com.gallerio.service;
+
+import com.gallerio.dto.ArtistSalesBucket;
+import com.gallerio.dto.ArtistSalesStats;
+import com.gallerio.dto.ArtistTopArtwork;
+import com.gallerio.dto.OrderStatusUpdate;
+import com.gallerio.model.ArtistSalesDaily;
+import com.gallerio.model.Artwork;
+import com.gallerio.model.Order;
+import com.gallerio.model.Role;
+import com.gallerio.model.User;
+import com.gallerio.repository.ArtistSalesDailyRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.gallerio.TestFixtures.artwork;
+import static com.gallerio.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderService.class, OrderReconciliationService.class, ArtistSalesService.class})
+class ArtistSalesStatsTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderReconciliationService reconciliationService;
+
+    @Autowired
+    private ArtistSalesService artistSalesService;
+
+    @Autowired
+    private ArtistSalesDailyRepository salesRepository;
+
+    private User artist;
+    private User buyer;
+
+    @BeforeEach
+    void setUp() {
+        artist = entityManager.persist(user("stats-artist@gallerio.test", Role.ARTIST));
+        buyer = entityManager.persist(user("stats-buyer@gallerio.test", Role.COLLECTOR));
+        User rival = entityManager.persist(user("stats-rival@gallerio.test", Role.ARTIST));
+        entityManager.persist(artwork("Someone else's", 999.0, rival));
+    }
+
+    @Test
+    void incrementalRollupMatchesARebuildAndNeverReadsOrders() {
+        Artwork big = entityManager.persist(artwork("Big", 500.0, artist));
+        Artwork small = entityManager.persist(artwork("Small", 120.0, artist));
+        Artwork swept = entityManager.persist(artwork("Swept", 80.0, artist));
+        Artwork unpaid = entityManager.persist(artwork("Unpaid", 60.0, artist));
+
+        Order bigOrder = place(big);
+        Order smallOrder = place(small);
+        Order sweptOrder = place(swept);
+        place(unpaid);
+        orderService.updatePaymentStatus(bigOrder.getId(), Order.PaymentStatus.PAID);
+        reconciliationService.reconcile(List.of(new OrderStatusUpdate(smallOrder.getId(), "PAID")).iterator());
+        // Price edits after the sale do not change its revenue
+        entityManager.getEntityManager().createQuery("UPDATE Artwork a SET a.price = 9000.0 WHERE a.id = :id")
+                .setParameter("id", big.getId())
+                .executeUpdate();
+        backdateHold(sweptOrder, LocalDateTime.now().minusMinutes(1));
+        orderService.releaseExpiredReservations();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ArtistSalesStats incremental = artistSalesService.getStats(artist.getEmail(), "day", null, null);
+
+        // The artist lookup, the daily totals and the top artworks
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+        assertThat(incremental.getRevenue()).isEqualTo(620.0);
+        assertThat(incremental.getOrdersByStatus())
+                .containsEntry("PENDING_PAYMENT", 1L)
+                .containsEntry("PAID", 2L)
+                .containsEntry("EXPIRED", 1L);
+        assertThat(incremental.getBuckets()).singleElement()
+                .extracting(ArtistSalesBucket::getPeriodStart).isEqualTo(LocalDate.now());
+        assertThat(incremental.getTopArtworks()).extracting(ArtistTopArtwork::getTitle)
+                .containsExactly("Big", "Small");
+
+        artistSalesService.rebuild();
+        assertThat(artistSalesService.getStats(artist.getEmail(), "day", null, null)).isEqualTo(incremental);
+    }
+
+    @Test
+    void daysRollUpIntoWeeksAndMonths() {
+        Artwork piece = entityManager.persist(artwork("Series", 100.0, artist));
+        // Monday 2 and Sunday 8 March share a week; 31 March starts the next week of a different month
+        salesRepository.saveAll(List.of(
+                day(piece, LocalDate.of(2026, 3, 2), 1, 100.0),
+                day(piece, LocalDate.of(2026, 3, 8), 2, 200.0),
+                day(piece, LocalDate.of(2026, 3, 31), 1, 100.0),
+                day(piece, LocalDate.of(2026, 4, 1), 3, 300.0)));
+
+        ArtistSalesStats weeks = artistSalesService.getStats(artist.getEmail(), "week",
+                LocalDate.of(2026, 3, 1), LocalDate.of(2026, 4, 30));
+        ArtistSalesStats months = artistSalesService.getStats(artist.getEmail(), "MONTH",
+                LocalDate.of(2026, 3, 1), LocalDate.of(2026, 4, 30));
+
+        assertThat(weeks.getBuckets()).extracting(ArtistSalesBucket::getPeriodStart)
+                .containsExactly(LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 30));
+        assertThat(weeks.getBuckets()).extracting(ArtistSalesBucket::getPaidCount).containsExactly(3L, 4L);
+        assertThat(months.getBuckets()).extracting(ArtistSalesBucket::getRevenue).containsExactly(400.0, 300.0);
+        assertThat(months.getBuckets()).isSortedAccordingTo(Comparator.comparing(ArtistSalesBucket::getPeriodStart));
+        assertThatThrownBy(() -> artistSalesService.getStats(artist.getEmail(), "year", null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> artistSalesService.getStats(artist.getEmail(), "day",
+                LocalDate.of(2020, 1, 1), LocalDate.of(2026, 1, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Order place(Artwork artwork) {
+        return orderService.createOrder(artwork.getId(), buyer.getEmail(), "0780000000", "mtn");
+    }
+
+    // Bulk updates, since the reservation statements have moved the artwork's version past the managed copy
+    private void backdateHold(Order order, LocalDateTime expiresAt) {
+        entityManager.getEntityManager().createQuery("UPDATE Order o SET o.expiresAt = :expiresAt WHERE o.id = :id")
+                .setParameter("expiresAt", expiresAt)
+                .setParameter("id", order.getId())
+                .executeUpdate();
+        entityManager.getEntityManager()
+                .createQuery("UPDATE Artwork a SET a.reservedUntil = :expiresAt WHERE a.id = :id")
+                .setParameter("expiresAt", expiresAt)
+                .setParameter("id", order.getArtwork().getId())
+                .executeUpdate();
+    }
+
+    private ArtistSalesDaily day(Artwork artwork, LocalDate date, long paid, double revenue) {
+        return ArtistSalesDaily.builder()
+                .artistId(artist.getId())
+                .artworkId(artwork.getId())
+                .salesDate(date)
+                .paidCount(paid)
+                .revenue(revenue)
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package com.gallerio.service;
+
+import com.gallerio.model.Artwork;
+import com.gallerio.model.Role;
+import com.gallerio.model.User;
+import com.gallerio.repository.ArtworkRepository;
+import com.gallerio.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ArtworkDerivativeService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ArtworkDerivativeServiceTest {
+
+    private static final Path UPLOADS = createUploadDir();
+
+    @DynamicPropertySource
+    static void uploadDir(DynamicPropertyRegistry registry) {
+        registry.add("app.upload.dir", UPLOADS::toString);
+    }
+
+    @Autowired
+    private ArtworkRepository artworkRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ArtworkDerivativeService derivativeService;
+
+    @AfterEach
+    void tearDown() {
+        artworkRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void generatesDownscaledVariantsAndRecordsTheirUrls() throws Exception {
+        writeOriginal("abc_painting.png");
+        Long artworkId = persistArtwork("/uploads/abc_painting.png");
+
+        assertThat(derivativeService.generate(artworkId)).isTrue();
+
+        Artwork artwork = artworkRepository.findById(artworkId).orElseThrow();
+        assertThat(artwork.getThumbnailUrl()).isEqualTo("/uploads/derived/abc_painting-thumb.jpg");
+        assertThat(artwork.getMediumUrl()).isEqualTo("/uploads/derived/abc_painting-medium.jpg");
+        assertThat(artwork.getLargeUrl()).isEqualTo("/uploads/derived/abc_painting-large.jpg");
+
+        assertLongestEdge("abc_painting-thumb.jpg", 320);
+        assertLongestEdge("abc_painting-medium.jpg", 960);
+        assertLongestEdge("abc_painting-large.jpg", 1920);
+    }
+
+    @Test
+    void currentVariantsAreNotRegenerated() throws Exception {
+        writeOriginal("ghi_study.png");
+        Long artworkId = persistArtwork("/uploads/ghi_study.png");
+        assertThat(derivativeService.generate(artworkId)).isTrue();
+        Path thumbnail = UPLOADS.resolve("derived").resolve("ghi_study-thumb.jpg");
+        Files.delete(thumbnail);
+
+        // As after a title or price edit, which keeps the image and its variant URLs
+        assertThat(derivativeService.generate(artworkId)).isTrue();
+
+        assertThat(thumbnail).doesNotExist();
+    }
+
+    @Test
+    void missingOriginalLeavesArtworkUntouched() throws Exception {
+        Long artworkId = persistArtwork("/uploads/does-not-exist.jpg");
+
+        assertThat(derivativeService.generate(artworkId)).isFalse();
+        assertThat(artworkRepository.findById(artworkId).orElseThrow().getThumbnailUrl()).isNull();
+    }
+
+    // As when reached from an after-commit listener: the caller's transaction must not swallow the update
+    @Test
+    void variantsCommitIndependentlyOfTheCallersTransaction() throws Exception {
+        writeOriginal("def_sketch.png");
+        Long artworkId = persistArtwork("/uploads/def_sketch.png");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try {
+                assertThat(derivativeService.generate(artworkId)).isTrue();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            status.setRollbackOnly();
+        });
+
+        assertThat(artworkRepository.findById(artworkId).orElseThrow().getThumbnailUrl())
+                .isEqualTo("/uploads/derived/def_sketch-thumb.jpg");
+    }
+
+    private static void writeOriginal(String filename) throws IOException {
+        BufferedImage original = new BufferedImage(4000, 2500, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = original.createGraphics();
+        graphics.setColor(Color.ORANGE);
+        graphics.fillRect(0, 0, 4000, 2500);
+        graphics.dispose();
+        ImageIO.write(original, "png", UPLOADS.resolve(filename).toFile());
+    }
+
+    private Long persistArtwork(String imageUrl) {
+        User artist = userRepository.save(User.builder()
+                .firstName("Ada")
+                .lastName("Painter")
+                .email("ada" + System.nanoTime() + "@gallerio.test")
+                .password("secret")
+                .role(Role.ARTIST)
+                .build());
+        Artwork artwork = new Artwork();
+        artwork.setTitle("Painting");
+        artwork.setDescription("Oil on canvas");
+        artwork.setPrice(500.0);
+        artwork.setCategory("PAINTING");
+        artwork.setImageUrl(imageUrl);
+        artwork.setStatus("AVAILABLE");
+        artwork.setUser(artist);
+        return artworkRepository.save(artwork).getId();
+    }
+
+    private static void assertLongestEdge(String filename, int expected) throws IOException {
+        BufferedImage variant = ImageIO.read(UPLOADS.resolve("derived").resolve(filename).toFile());
+        assertThat(Math.max(variant.getWidth(), variant.getHeight())).isEqualTo(expected);
+    }
+
+    private static Path createUploadDir() {
+        try {
+            return Files.createTempDirectory("gallerio-derivatives");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.gallerio.service;
+
+import com.gallerio.dto.ArtworkDTO;
+import com.gallerio.dto.ArtworkSearchResponse;
+import com.gallerio.repository.ArtworkRepository;
+import com.gallerio.service.impl.InMemoryInvalidationBus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArtworkSearchServiceTest {
+
+    private InMemoryInvalidationBus invalidationBus;
+    private ArtworkSearchService searchService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        invalidationBus = new InMemoryInvalidationBus();
+        searchService = new ArtworkSearchService(null, invalidationBus);
+        ReflectionTestUtils.setField(searchService, "maxPageSize", 100);
+        ReflectionTestUtils.setField(searchService, "maxResultWindow", 10000);
+        ReflectionTestUtils.setField(searchService, "rebuildDebounceMillis", 200L);
+
+        searchService.index(artwork(1L, "Blue Harbour at Dawn", "Oil painting of fishing boats", "PAINTING", 450.0, "Mia Laurent"));
+        searchService.index(artwork(2L, "Harbor Lights", "Long exposure photograph of a harbour at night", "PHOTOGRAPHY", 120.0, "Tom Reyes"));
+        searchService.index(artwork(3L, "Bronze Heron", "Cast bronze sculpture of a heron", "SCULPTURE", 5200.0, "Mia Laurent"));
+        searchService.index(artwork(4L, "Quiet Field", "Watercolour landscape", "PAINTING", 80.0, "Ana Kowal"));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ReflectionTestUtils.invokeMethod(searchService, "close");
+    }
+
+    @Test
+    void ranksTitleMatchesAboveDescriptionMatchesAndStemsTerms() {
+        ArtworkSearchResponse response = searchService.search("harbours", null, null, null, 0, 10);
+
+        assertThat(response.getTotalHits()).isEqualTo(2);
+        assertThat(response.getItems()).extracting(ArtworkDTO::getId).containsExactly(1L, 2L);
+        assertThat(response.getItems().get(0).getArtistName()).isEqualTo("Mia Laurent");
+        assertThat(response.getItems().get(0).getPrice()).isEqualTo(450.0);
+    }
+
+    @Test
+    void searchesArtistNamesAndReturnsFacetCounts() {
+        ArtworkSearchResponse response = searchService.search("laurent", null, null, null, 0, 10);
+
+        assertThat(response.getItems()).extracting(ArtworkDTO::getId).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(response.getCategoryFacets()).containsEntry("PAINTING", 1L).containsEntry("SCULPTURE", 1L)
+                .doesNotContainKey("PHOTOGRAPHY");
+        assertThat(response.getPriceFacets()).containsEntry("100 - 500", 1L).containsEntry("5000 and up", 1L)
+                .containsEntry("Under 100", 0L);
+    }
+
+    @Test
+    void filtersByCategoryAndPriceAndPages() {
+        ArtworkSearchResponse paintings = searchService.search(null, "PAINTING", null, 100.0, 0, 10);
+        assertThat(paintings.getItems()).extracting(ArtworkDTO::getId).containsExactly(4L);
+
+        ArtworkSearchResponse secondPage = searchService.search("", null, null, null, 1, 3);
+        assertThat(secondPage.getTotalHits()).isEqualTo(4);
+        assertThat(secondPage.getItems()).hasSize(1);
+    }
+
+    @Test
+    void updatesAndDeletesAreVisibleImmediately() {
+        searchService.index(artwork(4L, "Quiet Harbour", "Watercolour landscape", "PAINTING", 80.0, "Ana Kowal"));
+        assertThat(searchService.search("harbour", null, null, null, 0, 10).getTotalHits()).isEqualTo(3);
+
+        searchService.remove(1L);
+        assertThat(searchService.search("harbour", null, null, null, 0, 10).getItems())
+                .extracting(ArtworkDTO::getId).containsExactlyInAnyOrder(2L, 4L);
+    }
+
+    @Test
+    void malformedQueryFallsBackToLiteralTerms() {
+        assertThat(searchService.search("\"bronze heron", null, null, null, 0, 10).getItems())
+                .extracting(ArtworkDTO::getId).containsExactly(3L);
+    }
+
+    @Test
+    void searchesKeepTheOldIndexWhileARebuildRunsAndUpdatesWaitForIt() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ArtworkRepository repository = (ArtworkRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ArtworkRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findCatalogFirstPage")) {
+                        reading.countDown();
+                        release.await(5, TimeUnit.SECONDS);
+                        return List.of(artwork(1L, "Blue Harbour at Dawn", "Oil painting", "PAINTING", 450.0, "Mia Laurent"),
+                                artwork(2L, "Harbor Lights", "Photograph", "PHOTOGRAPHY", 120.0, "Tom Reyes"));
+                    }
+                    return List.of();
+                });
+        ReflectionTestUtils.setField(searchService, "artworkRepository", repository);
+
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(searchService::rebuild);
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> update = CompletableFuture.runAsync(() ->
+                searchService.index(artwork(2L, "Harbor Lights Reprint", "Photograph", "PHOTOGRAPHY", 90.0, "Tom Reyes")));
+        assertThat(searchService.search("", null, null, null, 0, 10).getTotalHits()).isEqualTo(4);
+
+        release.countDown();
+        rebuild.get(5, TimeUnit.SECONDS);
+        update.get(5, TimeUnit.SECONDS);
+        ArtworkSearchResponse all = searchService.search("", null, null, null, 0, 10);
+        assertThat(all.getItems()).extracting(ArtworkDTO::getId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(searchService.search("reprint", null, null, null, 0, 10).getTotalHits()).isEqualTo(1);
+    }
+
+    // A reconnecting listener delivers ALL to each region in turn, before this node has ever rebuilt
+    @Test
+    void allInvalidationsOfBothRegionsShareOneRebuild() throws Exception {
+        AtomicInteger rebuilds = new AtomicInteger();
+        ArtworkRepository repository = (ArtworkRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ArtworkRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findCatalogFirstPage")) {
+                        rebuilds.incrementAndGet();
+                        return List.of(artwork(3L, "Bronze Heron", "Cast bronze", "SCULPTURE", 5200.0, "Mia Laurent"));
+                    }
+                    return List.of();
+                });
+        ReflectionTestUtils.setField(searchService, "artworkRepository", repository);
+
+        invalidationBus.publish("search.artworks", InvalidationBus.ALL);
+        invalidationBus.publish("search.artists", InvalidationBus.ALL);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (searchService.search("", null, null, null, 0, 10).getTotalHits() != 1
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        Thread.sleep(400);
+        assertThat(rebuilds).hasValue(1);
+        assertThat(searchService.search("", null, null, null, 0, 10).getItems())
+                .extracting(ArtworkDTO::getId).containsExactly(3L);
+    }
+
+    private static ArtworkDTO artwork(Long id, String title, String description, String category, Double price,
+                                      String artistName) {
+        ArtworkDTO artwork = new ArtworkDTO();
+        artwork.setId(id);
+        artwork.setTitle(title);
+        artwork.setDescription(description);
+        artwork.setCategory(category);
+        artwork.setPrice(price);
+        artwork.setArtistName(artistName);
+        artwork.setStatus("AVAILABLE");
+        artwork.setUserId(id * 10);
+        artwork.setImageUrl("/uploads/" + id + ".jpg");
+        artwork.setCreatedAt(LocalDateTime.of(2024, 1, id.intValue(), 12, 0));
+        artwork.setUpdatedAt(LocalDateTime.of(2024, 1, id.intValue(), 12, 0));
+        return artwork;
+    }
+}
@@ -0,0 +1,145 @@
+package com.gallerio.service;
+
+import com.gallerio.model.EmailOutboxMessage;
+import com.gallerio.repository.EmailOutboxRepository;
+import com.gallerio.service.impl.EmailServiceImpl;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EmailServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmailOutboxDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void deliversQueuedMessagesInBatches() throws Exception {
+        for (int i = 0; i < 12; i++) {
+            emailService.sendEmail("user" + i + "@example.com", "Subject " + i, "Body " + i);
+        }
+
+        dispatcher(ServerSetupTest.SMTP.getPort(), 5).dispatchPending();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(12);
+        assertThat(emailOutboxRepository.findAll())
+                .allSatisfy(m -> {
+                    assertThat(m.getStatus()).isEqualTo(EmailOutboxMessage.Status.SENT);
+                    assertThat(m.getSentAt()).isNotNull();
+                });
+    }
+
+    @Test
+    void retriesWithBackoffThenDeadLetters() {
+        emailService.sendEmail("someone@example.com", "Subject", "Body");
+        // Nothing listens on this port, so every attempt fails
+        EmailOutboxDispatcher failing = dispatcher(ServerSetupTest.SMTP.getPort() + 7, 10);
+
+        failing.dispatchPending();
+        EmailOutboxMessage afterFirst = emailOutboxRepository.findAll().get(0);
+        assertThat(afterFirst.getStatus()).isEqualTo(EmailOutboxMessage.Status.PENDING);
+        assertThat(afterFirst.getAttempts()).isEqualTo(1);
+        assertThat(afterFirst.getNextAttemptAt()).isAfter(LocalDateTime.now());
+        assertThat(afterFirst.getLastError()).isNotBlank();
+
+        // Not due yet, so a second poll leaves it alone
+        failing.dispatchPending();
+        assertThat(emailOutboxRepository.findAll().get(0).getAttempts()).isEqualTo(1);
+
+        afterFirst.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        emailOutboxRepository.save(afterFirst);
+        failing.dispatchPending();
+
+        List<EmailOutboxMessage> rows = emailOutboxRepository.findAll();
+        assertThat(rows).singleElement().satisfies(m -> {
+            assertThat(m.getStatus()).isEqualTo(EmailOutboxMessage.Status.DEAD);
+            assertThat(m.getAttempts()).isEqualTo(2);
+        });
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    @Test
+    void sendsWithNoTransactionOpenWhileTheBatchIsLeased() {
+        emailService.sendEmail("someone@example.com", "Subject", "Body");
+        List<Boolean> transactionActive = new ArrayList<>();
+        List<Integer> claimableDuringSend = new ArrayList<>();
+        TransactionTemplate otherDispatcher = new TransactionTemplate(transactionManager);
+        JavaMailSenderImpl sender = new JavaMailSenderImpl() {
+            @Override
+            public void send(SimpleMailMessage... simpleMessages) {
+                transactionActive.add(TransactionSynchronizationManager.isActualTransactionActive());
+                claimableDuringSend.add(otherDispatcher.execute(status ->
+                        emailOutboxRepository.findDueForDispatch(LocalDateTime.now(), Limit.of(10)).size()));
+                super.send(simpleMessages);
+            }
+        };
+
+        dispatcher(sender, ServerSetupTest.SMTP.getPort(), 10).dispatchPending();
+
+        assertThat(transactionActive).containsExactly(false);
+        assertThat(claimableDuringSend).containsExactly(0);
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+        assertThat(emailOutboxRepository.findAll()).singleElement()
+                .extracting(EmailOutboxMessage::getStatus).isEqualTo(EmailOutboxMessage.Status.SENT);
+    }
+
+    private EmailOutboxDispatcher dispatcher(int port, int batchSize) {
+        return dispatcher(new JavaMailSenderImpl(), port, batchSize);
+    }
+
+    private EmailOutboxDispatcher dispatcher(JavaMailSenderImpl sender, int port, int batchSize) {
+        sender.setHost("localhost");
+        sender.setPort(port);
+
+        EmailOutboxDispatcher dispatcher = new EmailOutboxDispatcher(emailOutboxRepository, sender, transactionManager);
+        ReflectionTestUtils.setField(dispatcher, "from", "noreply@gallerio.test");
+        ReflectionTestUtils.setField(dispatcher, "batchSize", batchSize);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 2);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoffSeconds", 30L);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffSeconds", 3600L);
+        ReflectionTestUtils.setField(dispatcher, "claimLeaseSeconds", 300L);
+        return dispatcher;
+    }
+}
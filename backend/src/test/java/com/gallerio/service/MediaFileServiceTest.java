@@ -0,0 +1,118 @@
+package com.gallerio.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MediaFileServiceTest {
+
+    private static final String VERSIONED = "0f8fad5b-d9cb-469f-a165-70867728950e_painting.jpg";
+
+    @TempDir
+    Path uploads;
+
+    private MediaFileService mediaFileService;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mediaFileService = new MediaFileService(uploads.toString(), 49152, 100);
+        content = new byte[100_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Files.write(uploads.resolve(VERSIONED), content);
+        Files.write(uploads.resolve("legacy.png"), content);
+    }
+
+    @Test
+    void servesFullBodyWithValidatorsAndImmutableCaching() throws Exception {
+        MockHttpServletResponse response = get(VERSIONED, new MockHttpServletRequest("GET", "/uploads/" + VERSIONED));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+        assertThat(response.getContentType()).isEqualTo("image/jpeg");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).matches("\"[0-9a-f]{32}\"");
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).contains("immutable");
+        assertThat(get("legacy.png", new MockHttpServletRequest("GET", "/uploads/legacy.png"))
+                .getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache, public");
+    }
+
+    @Test
+    void matchingIfNoneMatchReturnsNotModified() throws Exception {
+        String etag = get(VERSIONED, new MockHttpServletRequest("GET", "/")).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag);
+        MockHttpServletResponse response = get(VERSIONED, request);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void singleRangeReturnsPartialContent() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=1000-1999");
+        MockHttpServletResponse response = get(VERSIONED, request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 1000-1999/100000");
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 1000, 2000));
+    }
+
+    @Test
+    void staleIfRangeFallsBackToFullBody() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-9");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+        MockHttpServletResponse response = get(VERSIONED, request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).hasSize(content.length);
+    }
+
+    @Test
+    void rangePastEndIsNotSatisfiable() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=200000-");
+        MockHttpServletResponse response = get(VERSIONED, request);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */100000");
+    }
+
+    @Test
+    void largeBodiesAreHandedToSendfileWhenSupported() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=-50000");
+        MockHttpServletResponse response = get(VERSIONED, request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(50_000L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(100_000L);
+    }
+
+    @Test
+    void pathsOutsideTheUploadDirectoryAreRejected() {
+        assertThat(mediaFileService.resolveUpload("../secret.txt")).isNull();
+        assertThat(mediaFileService.resolveUpload("derived/x.jpg")).isEqualTo(uploads.resolve("derived/x.jpg"));
+    }
+
+    private MockHttpServletResponse get(String name, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        mediaFileService.serve(mediaFileService.resolveUpload(name), request, response);
+        return response;
+    }
+}
@@ -0,0 +1,138 @@
+package com.gallerio.service;
+
+import com.gallerio.mapper.MessageMapper;
+import com.gallerio.mapper.UserProfileMapper;
+import com.gallerio.model.Role;
+import com.gallerio.model.User;
+import com.gallerio.repository.ConversationRepository;
+import com.gallerio.repository.MessageRepository;
+import com.gallerio.repository.UserRepository;
+import com.gallerio.service.impl.InMemoryInvalidationBus;
+import com.gallerio.service.impl.MessageServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.gallerio.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs without a test transaction: pushes only happen once the sending transaction has committed
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MessageServiceImpl.class, MessageMapper.class, UserProfileMapper.class, InMemoryInvalidationBus.class,
+        MessageStreamRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MessageStreamRegistryTest {
+
+    @Autowired
+    private MessageServiceImpl messageService;
+
+    @Autowired
+    private MessageStreamRegistry registry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User artist;
+    private User collector;
+    private User bystander;
+
+    @BeforeEach
+    void setUp() {
+        artist = userRepository.save(user("stream-artist@gallerio.test", Role.ARTIST));
+        collector = userRepository.save(user("stream-collector@gallerio.test", Role.COLLECTOR));
+        bystander = userRepository.save(user("stream-bystander@gallerio.test", Role.COLLECTOR));
+    }
+
+    @AfterEach
+    void tearDown() {
+        conversationRepository.deleteAll();
+        messageRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void committedMessageIsPushedToBothParticipantsOnly() {
+        RecordingEmitter artistStream = new RecordingEmitter();
+        RecordingEmitter collectorStream = new RecordingEmitter();
+        RecordingEmitter bystanderStream = new RecordingEmitter();
+        registry.register(artist.getId(), artistStream);
+        registry.register(collector.getId(), collectorStream);
+        registry.register(bystander.getId(), bystanderStream);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                messageService.sendMessage(collector, artist, "Is it still available?", ""));
+
+        assertThat(artistStream.events).hasSize(1);
+        assertThat(artistStream.events.get(0)).contains("event:message").contains("Is it still available?");
+        assertThat(collectorStream.events).hasSize(1);
+        assertThat(bystanderStream.events).isEmpty();
+    }
+
+    @Test
+    void rolledBackMessageIsNeverPushed() {
+        RecordingEmitter artistStream = new RecordingEmitter();
+        registry.register(artist.getId(), artistStream);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            messageService.sendMessage(collector, artist, "Draft", "");
+            status.setRollbackOnly();
+        });
+
+        assertThat(artistStream.events).isEmpty();
+    }
+
+    @Test
+    void oldestStreamsAreClosedBeyondThePerUserLimit() {
+        List<RecordingEmitter> streams = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            RecordingEmitter stream = new RecordingEmitter();
+            streams.add(stream);
+            registry.register(artist.getId(), stream);
+        }
+
+        assertThat(registry.connectionCount()).isEqualTo(5);
+        assertThat(streams).filteredOn(stream -> stream.completed).hasSize(2);
+    }
+
+    // Captures what would be written to the response
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new ArrayList<>();
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder event = new StringBuilder();
+            builder.build().forEach(part -> event.append(part.getData()));
+            events.add(event.toString());
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.gallerio.service;
+
+import com.gallerio.model.Artwork;
+import com.gallerio.model.Order;
+import com.gallerio.model.Role;
+import com.gallerio.model.User;
+import com.gallerio.repository.ArtistSalesDailyRepository;
+import com.gallerio.repository.ArtworkRepository;
+import com.gallerio.repository.OrderIdempotencyKeyRepository;
+import com.gallerio.repository.OrderRepository;
+import com.gallerio.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.gallerio.TestFixtures.artwork;
+import static com.gallerio.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Runs without a test transaction so concurrent submissions really race on the committed key
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderService.class, ArtistSalesService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderIdempotencyTest {
+
+    private static final int RETRIES = 50;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderIdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private ArtworkRepository artworkRepository;
+
+    @Autowired
+    private ArtistSalesDailyRepository salesRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User buyer;
+    private Artwork artwork;
+
+    @BeforeEach
+    void setUp() {
+        User artist = userRepository.save(user("idempotent-artist@gallerio.test", Role.ARTIST));
+        buyer = userRepository.save(user("idempotent-buyer@gallerio.test", Role.COLLECTOR));
+        artwork = artworkRepository.save(artwork("Retried", 800.0, artist));
+    }
+
+    @AfterEach
+    void tearDown() {
+        idempotencyKeyRepository.deleteAllInBatch();
+        salesRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        artworkRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentDuplicateSubmissionsPlaceOneOrder() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(RETRIES);
+        List<Future<Order>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < RETRIES; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return orderService.createOrder("retry-key", artwork.getId(), buyer.getEmail(),
+                            "0780000000", "mtn");
+                }));
+            }
+            start.countDown();
+            Set<Long> orderIds = new HashSet<>();
+            for (Future<Order> future : futures) {
+                orderIds.add(future.get(60, TimeUnit.SECONDS).getId());
+            }
+            assertThat(orderIds).hasSize(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(idempotencyKeyRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void replayReturnsTheOriginalOrderAndRejectsADifferentRequest() {
+        Order first = orderService.createOrder("replay-key", artwork.getId(), buyer.getEmail(), "0780000000", "mtn");
+
+        Order replayed = orderService.createOrder("replay-key", artwork.getId(), buyer.getEmail(), "0780000000", "mtn");
+
+        assertThat(replayed.getId()).isEqualTo(first.getId());
+        assertThatThrownBy(() -> orderService.createOrder("replay-key", artwork.getId(), buyer.getEmail(),
+                "0720000000", "airtel"))
+                .isInstanceOf(IllegalArgumentException.class);
+        // A new key is a new purchase, and the piece is already held
+        assertThatThrownBy(() -> orderService.createOrder("another-key", artwork.getId(), buyer.getEmail(),
+                "0780000000", "mtn"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(idempotencyKeyRepository.findAll().stream().map(key -> key.getIdempotencyKey())
+                .collect(Collectors.toSet())).containsExactly("replay-key");
+    }
+}
@@ -0,0 +1,137 @@
+package com.gallerio.service;
+
+import com.gallerio.dto.OrderStatusUpdate;
+import com.gallerio.dto.ReconciliationReport;
+import com.gallerio.dto.ReconciliationResult;
+import com.gallerio.dto.ReconciliationResult.Outcome;
+import com.gallerio.model.Artwork;
+import com.gallerio.model.Order;
+import com.gallerio.model.Role;
+import com.gallerio.model.User;
+import com.gallerio.repository.ArtworkRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.gallerio.TestFixtures.artwork;
+import static com.gallerio.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderReconciliationService.class, ArtistSalesService.class})
+@TestPropertySource(properties = "app.orders.reconcile.chunk-size=100")
+class OrderReconciliationTest {
+
+    private static final int ORDERS = 1000;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderReconciliationService reconciliationService;
+
+    @Autowired
+    private ArtworkRepository artworkRepository;
+
+    private List<Order> orders;
+
+    @BeforeEach
+    void setUp() {
+        User artist = entityManager.persist(user("reconcile-artist@gallerio.test", Role.ARTIST));
+        User buyer = entityManager.persist(user("reconcile-buyer@gallerio.test", Role.COLLECTOR));
+        LocalDateTime holdEnds = LocalDateTime.now().plusMinutes(15).truncatedTo(ChronoUnit.MICROS);
+
+        // Every order holds its own reserved artwork, as OrderService leaves them
+        orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            Artwork artwork = artwork("Held " + i, 100.0 + i, artist);
+            artwork.setStatus(Artwork.STATUS_RESERVED);
+            artwork.setReservedUntil(holdEnds);
+            entityManager.persist(artwork);
+            orders.add(entityManager.persist(Order.builder()
+                    .artwork(artwork)
+                    .customer(buyer)
+                    .phoneNumber("0780000000")
+                    .paymentMethod("mtn")
+                    .paymentStatus(Order.PaymentStatus.PENDING_PAYMENT)
+                    .expiresAt(holdEnds)
+                    .build()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void chunksCostAFixedNumberOfStatementsWhateverTheirSize() {
+        List<OrderStatusUpdate> updates = orders.stream()
+                .map(order -> new OrderStatusUpdate(order.getId(), "PAID"))
+                .toList();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ReconciliationReport report = reconciliationService.reconcile(updates.iterator());
+
+        // Ten chunks of a snapshot read, one order update, one artwork update and one sales rollup update
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(40);
+        assertThat(report.getOutcomes()).containsExactly(Map.entry(Outcome.UPDATED, (long) ORDERS));
+        assertThat(artworkRepository.findAll())
+                .allMatch(artwork -> Artwork.STATUS_SOLD.equals(artwork.getStatus())
+                        && artwork.getReservedUntil() == null);
+    }
+
+    @Test
+    void csvRowsEachGetAnOutcome() {
+        long first = orders.get(0).getId();
+        long second = orders.get(1).getId();
+        long third = orders.get(2).getId();
+        reconciliationService.reconcile(List.of(new OrderStatusUpdate(third, "EXPIRED")).iterator());
+        String csv = "orderId,status\n"
+                + first + ",PAID\n"
+                + second + ",expired\n"
+                + first + ",PAID\n"
+                + third + ",PAID\n"
+                + third + "x,PAID\n"
+                + "\n"
+                + "999999,PAID\n"
+                + second + ",PENDING_PAYMENT\n";
+
+        ReconciliationReport report = reconciliationService.reconcile(new StringReader(csv));
+
+        assertThat(report.getTotal()).isEqualTo(7);
+        assertThat(report.getResults()).extracting(ReconciliationResult::getOutcome).containsExactly(
+                Outcome.UPDATED, Outcome.UPDATED, Outcome.DUPLICATE, Outcome.CONFLICT,
+                Outcome.INVALID, Outcome.NOT_FOUND, Outcome.INVALID);
+        entityManager.clear();
+        assertThat(statusOf(first)).isEqualTo(Artwork.STATUS_SOLD);
+        assertThat(statusOf(second)).isEqualTo(Artwork.STATUS_AVAILABLE);
+        assertThat(statusOf(third)).isEqualTo(Artwork.STATUS_AVAILABLE);
+        // Replaying the file changes nothing further
+        assertThat(reconciliationService.reconcile(new StringReader(first + ",PAID")).getResults().get(0).getOutcome())
+                .isEqualTo(Outcome.UNCHANGED);
+    }
+
+    private String statusOf(long orderId) {
+        return entityManager.find(Order.class, orderId).getArtwork().getStatus();
+    }
+}
@@ -0,0 +1,166 @@
+package com.gallerio.service;
+
+import com.gallerio.model.Artwork;
+import com.gallerio.model.Order;
+import com.gallerio.model.Role;
+import com.gallerio.model.User;
+import com.gallerio.repository.ArtistSalesDailyRepository;
+import com.gallerio.repository.ArtworkRepository;
+import com.gallerio.repository.OrderRepository;
+import com.gallerio.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.gallerio.TestFixtures.artwork;
+import static com.gallerio.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Runs without a test transaction so every buyer commits or fails in its own transaction
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderService.class, ArtistSalesService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderReservationTest {
+
+    private static final int BUYERS = 500;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArtworkRepository artworkRepository;
+
+    @Autowired
+    private ArtistSalesDailyRepository salesRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User artist;
+    private Artwork artwork;
+
+    @BeforeEach
+    void setUp() {
+        artist = userRepository.save(user("reservation-artist@gallerio.test", Role.ARTIST));
+        artwork = artworkRepository.save(artwork("Only One", 1200.0, artist));
+    }
+
+    @AfterEach
+    void tearDown() {
+        salesRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        artworkRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void exactlyOneOfManyConcurrentBuyersWinsAOneOfAKindPiece() throws Exception {
+        List<User> buyers = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            buyers.add(user("buyer-" + i + "@gallerio.test", Role.COLLECTOR));
+        }
+        buyers = userRepository.saveAll(buyers);
+
+        AtomicInteger winners = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(BUYERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (User buyer : buyers) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        orderService.createOrder(artwork.getId(), buyer.getEmail(), "0700000000", "MPESA");
+                        winners.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(winners.get()).isEqualTo(1);
+        assertThat(rejected.get()).isEqualTo(BUYERS - 1);
+        assertThat(orderRepository.count()).isEqualTo(1);
+        Artwork reserved = artworkRepository.findById(artwork.getId()).orElseThrow();
+        assertThat(reserved.getStatus()).isEqualTo(Artwork.STATUS_RESERVED);
+        assertThat(reserved.getVersion()).isEqualTo(artwork.getVersion() + 1);
+    }
+
+    @Test
+    void expiredHoldsAreReleasedAndTheirOrdersExpired() {
+        User buyer = userRepository.save(user("late-buyer@gallerio.test", Role.COLLECTOR));
+        Order order = orderService.createOrder(artwork.getId(), buyer.getEmail(), "0700000000", "MPESA");
+        backdateHold(order.getId(), LocalDateTime.now().minusMinutes(1));
+
+        orderService.releaseExpiredReservations();
+
+        assertThat(artworkRepository.findById(artwork.getId()).orElseThrow().getStatus())
+                .isEqualTo(Artwork.STATUS_AVAILABLE);
+        assertThat(orderRepository.findById(order.getId()).orElseThrow().getPaymentStatus())
+                .isEqualTo(Order.PaymentStatus.EXPIRED);
+        // The lapsed order can no longer be paid, and the piece is on sale again
+        assertThatThrownBy(() -> orderService.updatePaymentStatus(order.getId(), Order.PaymentStatus.PAID))
+                .isInstanceOf(IllegalStateException.class);
+        orderService.createOrder(artwork.getId(), buyer.getEmail(), "0700000000", "MPESA");
+    }
+
+    @Test
+    void confirmingPaymentSellsTheArtworkAndSurvivesTheSweep() {
+        User buyer = userRepository.save(user("payer@gallerio.test", Role.COLLECTOR));
+        Order order = orderService.createOrder(artwork.getId(), buyer.getEmail(), "0700000000", "MPESA");
+
+        Order paid = orderService.updatePaymentStatus(order.getId(), Order.PaymentStatus.PAID);
+        orderService.releaseExpiredReservations();
+
+        assertThat(paid.getPaymentStatus()).isEqualTo(Order.PaymentStatus.PAID);
+        assertThat(paid.getArtwork().getStatus()).isEqualTo(Artwork.STATUS_SOLD);
+        assertThatThrownBy(() -> orderService.createOrder(artwork.getId(), buyer.getEmail(), "0700000000", "MPESA"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private void backdateHold(Long orderId, LocalDateTime expiresAt) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Order order = orderRepository.findById(orderId).orElseThrow();
+            order.setExpiresAt(expiresAt);
+            Artwork held = order.getArtwork();
+            held.setReservedUntil(expiresAt);
+        });
+    }
+}
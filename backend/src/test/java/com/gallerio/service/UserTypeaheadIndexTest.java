@@ -0,0 +1,62 @@
+package com.gallerio.service;
+
+import com.gallerio.dto.UserSuggestionDTO;
+import com.gallerio.service.impl.InMemoryInvalidationBus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserTypeaheadIndexTest {
+
+    private UserTypeaheadIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserTypeaheadIndex(null, new InMemoryInvalidationBus());
+        ReflectionTestUtils.setField(index, "maxResults", 20);
+        ReflectionTestUtils.setField(index, "scanBudget", 5000);
+        index.put(new UserSuggestionDTO(1L, "Mia", "Laurent", "a".repeat(64)));
+        index.put(new UserSuggestionDTO(2L, "Miguel", "Ortiz", null));
+        index.put(new UserSuggestionDTO(3L, "Zoë", "O'Neil", null));
+        index.put(new UserSuggestionDTO(4L, "Laura", "Mills", null));
+    }
+
+    @Test
+    void matchesFirstAndLastNamePrefixesCaseInsensitively() {
+        assertThat(index.suggest("MI", 10)).extracting(UserSuggestionDTO::getId).containsExactly(1L, 2L, 4L);
+        assertThat(index.suggest("laur", 10)).extracting(UserSuggestionDTO::getId).containsExactly(4L, 1L);
+        assertThat(index.suggest("mia", 10).get(0).getAvatarHash()).hasSize(64);
+    }
+
+    @Test
+    void foldsAccentsAndSplitsOnPunctuation() {
+        assertThat(index.suggest("zoe", 10)).extracting(UserSuggestionDTO::getId).containsExactly(3L);
+        assertThat(index.suggest("neil", 10)).extracting(UserSuggestionDTO::getId).containsExactly(3L);
+    }
+
+    @Test
+    void additionalWordsNarrowTheMatch() {
+        assertThat(index.suggest("mia la", 10)).extracting(UserSuggestionDTO::getId).containsExactly(1L);
+        assertThat(index.suggest("mig la", 10)).isEmpty();
+        assertThat(index.suggest("la mi", 10)).extracting(UserSuggestionDTO::getId).containsExactly(4L, 1L);
+    }
+
+    @Test
+    void capsResults() {
+        assertThat(index.suggest("m", 2)).hasSize(2);
+        assertThat(index.suggest("   ", 10)).isEmpty();
+    }
+
+    @Test
+    void renameAndRemoveUpdateTheIndex() {
+        index.put(new UserSuggestionDTO(2L, "Miguel", "Santos", null));
+        assertThat(index.suggest("ortiz", 10)).isEmpty();
+        assertThat(index.suggest("san", 10)).extracting(UserSuggestionDTO::getId).containsExactly(2L);
+
+        index.remove(1L);
+        assertThat(index.suggest("mia", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,132 @@
+package com.gallerio.service.impl;
+
+import com.gallerio.config.CacheConfig;
+import com.gallerio.dto.ArtworkDTO;
+import com.gallerio.mapper.ArtworkMapper;
+import com.gallerio.model.Role;
+import com.gallerio.model.User;
+import com.gallerio.repository.ArtworkRepository;
+import com.gallerio.repository.UserRepository;
+import com.gallerio.service.CacheInvalidator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs without a test transaction so writes really commit and the after-commit evictions fire
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CacheConfig.class, ArtworkServiceImpl.class, ArtworkMapper.class, CacheInvalidator.class,
+        InMemoryInvalidationBus.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ArtworkCachingTest {
+
+    @Autowired
+    private ArtworkServiceImpl artworkService;
+
+    @Autowired
+    private ArtworkRepository artworkRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User artist;
+    private User otherArtist;
+
+    @BeforeEach
+    void setUp() {
+        artist = userRepository.save(artist("cache-artist@gallerio.test"));
+        otherArtist = userRepository.save(artist("cache-other@gallerio.test"));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        artworkRepository.deleteAll();
+        userRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void repeatedReadsAreServedFromTheCache() {
+        ArtworkDTO created = artworkService.createArtwork(artwork("Dawn", artist.getId()));
+
+        statistics.clear();
+        artworkService.getArtwork(created.getId());
+        artworkService.getArtwork(created.getId());
+        artworkService.getArtworksByUser(artist.getId());
+        artworkService.getArtworksByUser(artist.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void updateEvictsTheArtworkAndBothOwnersListings() {
+        ArtworkDTO created = artworkService.createArtwork(artwork("Dawn", artist.getId()));
+        artworkService.getArtwork(created.getId());
+        assertThat(artworkService.getArtworksByUser(artist.getId())).hasSize(1);
+        assertThat(artworkService.getArtworksByUser(otherArtist.getId())).isEmpty();
+
+        ArtworkDTO update = artwork("Dusk", otherArtist.getId());
+        artworkService.updateArtwork(created.getId(), update);
+
+        assertThat(artworkService.getArtwork(created.getId()).getTitle()).isEqualTo("Dusk");
+        assertThat(artworkService.getArtworksByUser(artist.getId())).isEmpty();
+        assertThat(artworkService.getArtworksByUser(otherArtist.getId())).extracting(ArtworkDTO::getTitle)
+                .containsExactly("Dusk");
+    }
+
+    @Test
+    void createAndDeleteEvictTheOwnersListing() {
+        assertThat(artworkService.getArtworksByUser(artist.getId())).isEmpty();
+
+        ArtworkDTO created = artworkService.createArtwork(artwork("Dawn", artist.getId()));
+        assertThat(artworkService.getArtworksByUser(artist.getId())).hasSize(1);
+
+        artworkService.deleteArtwork(created.getId());
+        assertThat(artworkService.getArtworksByUser(artist.getId())).isEmpty();
+        assertThat(cacheManager.getCache(CacheConfig.ARTWORKS).get(created.getId())).isNull();
+    }
+
+    private static User artist(String email) {
+        return User.builder()
+                .firstName("Cache")
+                .lastName("Artist")
+                .email(email)
+                .password("secret")
+                .role(Role.ARTIST)
+                .build();
+    }
+
+    private static ArtworkDTO artwork(String title, Long userId) {
+        ArtworkDTO artwork = new ArtworkDTO();
+        artwork.setTitle(title);
+        artwork.setDescription("Oil on canvas");
+        artwork.setPrice(300.0);
+        artwork.setCategory("PAINTING");
+        artwork.setStatus("AVAILABLE");
+        artwork.setImageUrl("/uploads/" + title + ".jpg");
+        artwork.setUserId(userId);
+        return artwork;
+    }
+}
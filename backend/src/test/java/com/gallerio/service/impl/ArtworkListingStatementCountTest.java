@@ -0,0 +1,105 @@
+package com.gallerio.service.impl;
+
+import com.gallerio.dto.ArtworkDTO;
+import com.gallerio.dto.CursorPage;
+import com.gallerio.mapper.ArtworkMapper;
+import com.gallerio.model.Artwork;
+import com.gallerio.model.Role;
+import com.gallerio.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ArtworkServiceImpl.class, ArtworkMapper.class})
+class ArtworkListingStatementCountTest {
+
+    private static final int ARTISTS = 25;
+    private static final int ARTWORKS = 500;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ArtworkServiceImpl artworkService;
+
+    private Statistics statistics;
+    private List<User> artists;
+
+    @BeforeEach
+    void setUp() {
+        artists = new ArrayList<>();
+        for (int i = 0; i < ARTISTS; i++) {
+            artists.add(entityManager.persist(User.builder()
+                    .firstName("Artist" + i)
+                    .lastName("Test")
+                    .email("artist" + i + "@gallerio.test")
+                    .password("secret")
+                    .role(Role.ARTIST)
+                    .build()));
+        }
+        for (int i = 0; i < ARTWORKS; i++) {
+            Artwork artwork = new Artwork();
+            artwork.setTitle("Artwork " + i);
+            artwork.setDescription("Description " + i);
+            artwork.setPrice(100.0 + i);
+            artwork.setCategory(i % 2 == 0 ? "PAINTING" : "SCULPTURE");
+            artwork.setImageUrl("/uploads/artwork-" + i + ".jpg");
+            artwork.setStatus("AVAILABLE");
+            artwork.setUser(artists.get(i % ARTISTS));
+            entityManager.persist(artwork);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void allArtworksListingIsASingleStatement() {
+        List<ArtworkDTO> artworks = artworkService.getAllArtworks();
+
+        assertThat(artworks).hasSize(ARTWORKS);
+        assertThat(artworks.get(0).getArtistName()).endsWith(" Test");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void artistListingIsASingleStatement() {
+        List<ArtworkDTO> artworks = artworkService.getArtworksByUser(artists.get(0).getId());
+
+        assertThat(artworks).hasSize(ARTWORKS / ARTISTS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void catalogPagesAreASingleStatementEach() {
+        CursorPage<ArtworkDTO> first = artworkService.getCatalogPage("PAINTING", null, null, null, null, 100);
+        CursorPage<ArtworkDTO> second = artworkService.getCatalogPage("PAINTING", null, null, null, first.getNextCursor(), 100);
+
+        assertThat(first.getItems()).hasSize(100);
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(second.getItems()).hasSize(100);
+        assertThat(second.getItems()).doesNotContainAnyElementsOf(first.getItems());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,223 @@
+package com.gallerio.service.impl;
+
+import com.gallerio.dto.ArtworkDTO;
+import com.gallerio.dto.ArtworkUploadRequest;
+import com.gallerio.dto.ArtworkUploadStatus;
+import com.gallerio.mapper.ArtworkMapper;
+import com.gallerio.model.Role;
+import com.gallerio.model.User;
+import com.gallerio.repository.ArtworkRepository;
+import com.gallerio.repository.ArtworkUploadRepository;
+import com.gallerio.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Runs without a test transaction, as chunk writes commit their offsets outside any caller's transaction
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ArtworkUploadServiceImpl.class, ArtworkServiceImpl.class, ArtworkMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ArtworkUploadServiceImplTest {
+
+    private static final String EMAIL = "uploader@gallerio.test";
+    private static final Path ROOT = createRoot();
+
+    @DynamicPropertySource
+    static void uploadDirs(DynamicPropertyRegistry registry) {
+        registry.add("app.upload.dir", () -> ROOT.resolve("uploads").toString());
+        registry.add("app.upload.partial-dir", () -> ROOT.resolve("partial").toString());
+        registry.add("app.upload.max-chunk-bytes", () -> "4096");
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ArtworkUploadRepository artworkUploadRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ArtworkUploadServiceImpl uploadService;
+
+    @Autowired
+    private ArtworkRepository artworkRepository;
+
+    private byte[] image;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(User.builder()
+                .firstName("Up")
+                .lastName("Loader")
+                .email(EMAIL)
+                .password("secret")
+                .role(Role.ARTIST)
+                .build());
+        image = new byte[10_000];
+        new Random(42).nextBytes(image);
+    }
+
+    @AfterEach
+    void tearDown() {
+        artworkUploadRepository.deleteAllInBatch();
+        artworkRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void chunksAreAssembledAndArtworkCreatedOnCompletion() throws Exception {
+        ArtworkUploadStatus status = uploadService.initUpload(EMAIL, request(sha256(image)));
+        String id = status.getUploadId();
+        long artworksBefore = artworkRepository.count();
+
+        for (int offset = 0; offset < image.length; offset += 4096) {
+            byte[] chunk = Arrays.copyOfRange(image, offset, Math.min(image.length, offset + 4096));
+            status = uploadService.writeChunk(EMAIL, id, offset, chunk.length, new ByteArrayInputStream(chunk));
+        }
+        assertThat(status.getReceivedBytes()).isEqualTo(image.length);
+        assertThat(artworkRepository.count()).isEqualTo(artworksBefore);
+
+        ArtworkDTO artwork = uploadService.completeUpload(EMAIL, id);
+
+        assertThat(artwork.getId()).isNotNull();
+        assertThat(artwork.getImageUrl()).startsWith("/uploads/").endsWith("_scan.tif");
+        Path stored = ROOT.resolve("uploads").resolve(artwork.getImageUrl().substring("/uploads/".length()));
+        assertThat(Files.readAllBytes(stored)).isEqualTo(image);
+        assertThat(Files.exists(ROOT.resolve("partial").resolve(id + ".part"))).isFalse();
+        assertThat(uploadService.getStatus(EMAIL, id).getArtworkId()).isEqualTo(artwork.getId());
+    }
+
+    @Test
+    void outOfOrderChunkIsRejectedAndResumeContinuesFromReceivedOffset() {
+        String id = uploadService.initUpload(EMAIL, request(sha256(image))).getUploadId();
+        uploadService.writeChunk(EMAIL, id, 0, 4096, new ByteArrayInputStream(image, 0, 4096));
+
+        assertThatThrownBy(() -> uploadService.writeChunk(EMAIL, id, 8192, 1808,
+                new ByteArrayInputStream(image, 8192, 1808)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(uploadService.getStatus(EMAIL, id).getReceivedBytes()).isEqualTo(4096);
+    }
+
+    @Test
+    void chunkAfterAMissingPartialFileIsRejectedWithoutAdvancingTheOffset() throws Exception {
+        String id = uploadService.initUpload(EMAIL, request(sha256(image))).getUploadId();
+        uploadService.writeChunk(EMAIL, id, 0, 4096, new ByteArrayInputStream(image, 0, 4096));
+        // As if the sweeper removed it, or the first chunk was written on another node
+        Files.delete(ROOT.resolve("partial").resolve(id + ".part"));
+
+        assertThatThrownBy(() -> uploadService.writeChunk(EMAIL, id, 4096, 4096,
+                new ByteArrayInputStream(image, 4096, 4096)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(uploadService.getStatus(EMAIL, id).getReceivedBytes()).isEqualTo(4096);
+    }
+
+    @Test
+    void checksumMismatchDoesNotCreateArtwork() {
+        byte[] other = image.clone();
+        other[0] ^= 1;
+        String id = uploadService.initUpload(EMAIL, request(sha256(other))).getUploadId();
+        long artworksBefore = artworkRepository.count();
+        for (int offset = 0; offset < image.length; offset += 4096) {
+            int length = Math.min(4096, image.length - offset);
+            uploadService.writeChunk(EMAIL, id, offset, length, new ByteArrayInputStream(image, offset, length));
+        }
+
+        assertThatThrownBy(() -> uploadService.completeUpload(EMAIL, id))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Checksum mismatch");
+        assertThat(artworkRepository.count()).isEqualTo(artworksBefore);
+    }
+
+    @Test
+    void failedCompletionKeepsThePartialFileSoItCanBeRetried() throws Exception {
+        String id = uploadService.initUpload(EMAIL, request(sha256(image))).getUploadId();
+        for (int offset = 0; offset < image.length; offset += 4096) {
+            int length = Math.min(4096, image.length - offset);
+            uploadService.writeChunk(EMAIL, id, offset, length, new ByteArrayInputStream(image, offset, length));
+        }
+        // An artwork status the entity rejects makes the artwork insert fail after the image was published
+        setUploadStatus(id, "BOGUS");
+        long publishedBefore = countUploads();
+
+        assertThatThrownBy(() -> uploadService.completeUpload(EMAIL, id)).isInstanceOf(RuntimeException.class);
+
+        assertThat(Files.readAllBytes(ROOT.resolve("partial").resolve(id + ".part"))).isEqualTo(image);
+        assertThat(countUploads()).isEqualTo(publishedBefore);
+        setUploadStatus(id, "AVAILABLE");
+        assertThat(uploadService.completeUpload(EMAIL, id).getId()).isNotNull();
+        assertThat(Files.exists(ROOT.resolve("partial").resolve(id + ".part"))).isFalse();
+    }
+
+    private void setUploadStatus(String id, String status) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            artworkUploadRepository.findById(id).orElseThrow().setStatus(status);
+        });
+    }
+
+    private static long countUploads() throws IOException {
+        Path dir = ROOT.resolve("uploads");
+        if (!Files.exists(dir)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    private ArtworkUploadRequest request(String sha256) {
+        ArtworkUploadRequest request = new ArtworkUploadRequest();
+        request.setTitle("Large scan");
+        request.setDescription("A big TIFF");
+        request.setPrice(1200.0);
+        request.setCategory("PAINTING");
+        request.setStatus("AVAILABLE");
+        request.setFilename("C:\\scans\\scan.tif");
+        request.setContentType("image/tiff");
+        request.setTotalBytes((long) image.length);
+        request.setSha256(sha256);
+        return request;
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Path createRoot() {
+        try {
+            return Files.createTempDirectory("gallerio-uploads");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.gallerio.service.impl;
+
+import com.gallerio.dto.ConversationSummaryDTO;
+import com.gallerio.dto.CursorPage;
+import com.gallerio.mapper.MessageMapper;
+import com.gallerio.migration.ConversationBackfill;
+import com.gallerio.mapper.UserProfileMapper;
+import com.gallerio.model.Message;
+import com.gallerio.model.Role;
+import com.gallerio.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import static com.gallerio.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MessageServiceImpl.class, MessageMapper.class, UserProfileMapper.class, InMemoryInvalidationBus.class,
+        ConversationBackfill.class})
+class ConversationSummaryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MessageServiceImpl messageService;
+
+    @Autowired
+    private ConversationBackfill conversationBackfill;
+
+    private User artist;
+    private User collector;
+    private User otherCollector;
+
+    @BeforeEach
+    void setUp() {
+        artist = entityManager.persist(user("artist@gallerio.test", Role.ARTIST));
+        collector = entityManager.persist(user("collector@gallerio.test", Role.COLLECTOR));
+        otherCollector = entityManager.persist(user("other@gallerio.test", Role.COLLECTOR));
+    }
+
+    @Test
+    void sendingMaintainsOneSummaryPerPairWithUnreadCounts() {
+        messageService.sendMessage(collector, artist, "Is the painting still available?", "Enquiry");
+        messageService.sendMessage(artist, collector, "Yes it is", "Re: Enquiry");
+        messageService.sendMessage(collector, artist, "Great, I'll order it", "");
+        messageService.sendMessage(otherCollector, artist, "Hello", "");
+        entityManager.clear();
+
+        CursorPage<ConversationSummaryDTO> threads = messageService.getConversations(artist, null, 10);
+
+        assertThat(threads.getItems()).hasSize(2);
+        ConversationSummaryDTO latest = threads.getItems().get(0);
+        assertThat(latest.getOtherUser().getId()).isEqualTo(otherCollector.getId());
+        assertThat(latest.getUnreadCount()).isEqualTo(1);
+        ConversationSummaryDTO withCollector = threads.getItems().get(1);
+        assertThat(withCollector.getOtherUser().getId()).isEqualTo(collector.getId());
+        assertThat(withCollector.getLastMessagePreview()).isEqualTo("Great, I'll order it");
+        assertThat(withCollector.getLastSenderId()).isEqualTo(collector.getId());
+        assertThat(withCollector.getUnreadCount()).isEqualTo(2);
+
+        // The same row seen from the collector's side
+        ConversationSummaryDTO collectorView = messageService.getConversations(collector, null, 10).getItems().get(0);
+        assertThat(collectorView.getId()).isEqualTo(withCollector.getId());
+        assertThat(collectorView.getUnreadCount()).isEqualTo(1);
+        assertThat(messageService.getUnreadCount(artist)).isEqualTo(3);
+    }
+
+    @Test
+    void markingReadDecrementsOnlyOnce() {
+        Message first = messageService.sendMessage(collector, artist, "First", "");
+        messageService.sendMessage(collector, artist, "Second", "");
+
+        messageService.markAsRead(first.getId(), artist);
+        messageService.markAsRead(first.getId(), artist);
+        // Only the recipient can mark a message read
+        messageService.markAsRead(first.getId(), collector);
+        entityManager.clear();
+
+        assertThat(messageService.getUnreadCount(artist)).isEqualTo(1);
+        assertThat(messageService.getUnreadCount(collector)).isZero();
+    }
+
+    @Test
+    void listingIsASingleStatementAndPagesByRecency() {
+        messageService.sendMessage(collector, artist, "one", "");
+        messageService.sendMessage(otherCollector, artist, "two", "");
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CursorPage<ConversationSummaryDTO> first = messageService.getConversations(artist, null, 1);
+        CursorPage<ConversationSummaryDTO> second = messageService.getConversations(artist, first.getNextCursor(), 1);
+
+        assertThat(first.getItems()).extracting(ConversationSummaryDTO::getLastMessagePreview).containsExactly("two");
+        assertThat(second.getItems()).extracting(ConversationSummaryDTO::getLastMessagePreview).containsExactly("one");
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    // Rolling deploy: an upgraded node has already created a summary for a new thread
+    @Test
+    void backfillFillsThreadsWithoutASummaryEvenOnceOthersExist() {
+        entityManager.persist(Message.builder().sender(collector).recipient(artist).content("Older question").build());
+        entityManager.persist(Message.builder().sender(collector).recipient(artist).content("Still there?").build());
+        messageService.sendMessage(otherCollector, artist, "New thread", "");
+        entityManager.flush();
+
+        conversationBackfill.run(null);
+        conversationBackfill.run(null);
+        entityManager.clear();
+
+        CursorPage<ConversationSummaryDTO> threads = messageService.getConversations(artist, null, 10);
+        assertThat(threads.getItems()).hasSize(2);
+        assertThat(threads.getItems()).filteredOn(t -> t.getOtherUser().getId().equals(collector.getId()))
+                .singleElement().satisfies(t -> {
+                    assertThat(t.getLastMessagePreview()).isEqualTo("Still there?");
+                    assertThat(t.getUnreadCount()).isEqualTo(2);
+                });
+        assertThat(messageService.getUnreadCount(artist)).isEqualTo(3);
+    }
+}
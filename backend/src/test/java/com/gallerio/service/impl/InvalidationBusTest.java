@@ -0,0 +1,105 @@
+package com.gallerio.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvalidationBusTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void outsideATransactionHandlersRunImmediately() {
+        InMemoryInvalidationBus bus = new InMemoryInvalidationBus();
+        List<String> received = new ArrayList<>();
+        bus.subscribe("artworks", received::add);
+
+        bus.publish("artworks", "42");
+        bus.publish("artists", "42");
+
+        assertThat(received).containsExactly("42");
+    }
+
+    @Test
+    void insideATransactionHandlersWaitForTheCommit() {
+        InMemoryInvalidationBus bus = new InMemoryInvalidationBus();
+        List<String> received = new ArrayList<>();
+        bus.subscribe("artworks", received::add);
+
+        TransactionSynchronizationManager.initSynchronization();
+        bus.publish("artworks", "42");
+        assertThat(received).isEmpty();
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        assertThat(received).containsExactly("42");
+    }
+
+    @Test
+    void failingHandlerDoesNotStopTheOthers() {
+        InMemoryInvalidationBus bus = new InMemoryInvalidationBus();
+        List<String> received = new ArrayList<>();
+        bus.subscribe("artworks", key -> {
+            throw new IllegalStateException("boom");
+        });
+        bus.subscribe("artworks", received::add);
+
+        bus.publish("artworks", "7");
+
+        assertThat(received).containsExactly("7");
+    }
+
+    @Test
+    void postgresBusSkipsItsOwnNotifications() {
+        PostgresInvalidationBus bus = new PostgresInvalidationBus(null, null, "node-a", 1000);
+        List<String> received = new ArrayList<>();
+        bus.subscribe("principals", received::add);
+
+        bus.receive("node-a|principals|self@gallerio.test");
+        bus.receive("node-b|principals|odd|name@gallerio.test");
+        bus.receive("garbage");
+
+        assertThat(received).containsExactly("odd|name@gallerio.test");
+    }
+
+    @Test
+    void postgresBusSendsATransactionsMessagesAsOneDeduplicatedNotification() {
+        List<String> payloads = new ArrayList<>();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+            @Override
+            public <T> T query(String sql, ResultSetExtractor<T> extractor, Object... args) {
+                payloads.add((String) args[1]);
+                return null;
+            }
+        };
+        PostgresInvalidationBus sender = new PostgresInvalidationBus(jdbcTemplate, null, "node-a", 1000);
+        TransactionSynchronizationManager.initSynchronization();
+
+        sender.publish("artworks", "1");
+        sender.publish("artworks", "2");
+        sender.publish("artworks", "1");
+        assertThat(payloads).isEmpty();
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(payloads).containsExactly("node-a|artworks|1\nnode-a|artworks|2");
+        PostgresInvalidationBus receiver = new PostgresInvalidationBus(null, null, "node-b", 1000);
+        List<String> received = new ArrayList<>();
+        receiver.subscribe("artworks", received::add);
+        receiver.receive(payloads.get(0));
+        assertThat(received).containsExactly("1", "2");
+    }
+}
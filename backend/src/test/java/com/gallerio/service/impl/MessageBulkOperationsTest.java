@@ -0,0 +1,133 @@
+package com.gallerio.service.impl;
+
+import com.gallerio.dto.ConversationSummaryDTO;
+import com.gallerio.mapper.MessageMapper;
+import com.gallerio.mapper.UserProfileMapper;
+import com.gallerio.model.Message;
+import com.gallerio.model.Role;
+import com.gallerio.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.gallerio.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MessageServiceImpl.class, MessageMapper.class, UserProfileMapper.class, InMemoryInvalidationBus.class})
+class MessageBulkOperationsTest {
+
+    private static final int UNREAD = 200;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MessageServiceImpl messageService;
+
+    private Statistics statistics;
+    private User artist;
+    private User collector;
+    private List<Message> thread;
+
+    @BeforeEach
+    void setUp() {
+        artist = entityManager.persist(user("artist@gallerio.test", Role.ARTIST));
+        collector = entityManager.persist(user("collector@gallerio.test", Role.COLLECTOR));
+        thread = new ArrayList<>();
+        for (int i = 0; i < UNREAD; i++) {
+            thread.add(messageService.sendMessage(collector, artist, "message " + i, ""));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void markingAThreadReadUpToAMessageIsTwoStatements() {
+        Message upTo = thread.get(149);
+
+        int updated = messageService.markConversationRead(artist, collector.getId(), upTo.getId());
+
+        assertThat(updated).isEqualTo(150);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(unreadCountSeenBy(artist)).isEqualTo(50);
+        // Already-read messages are not counted again
+        assertThat(messageService.markConversationRead(artist, collector.getId(), upTo.getId())).isZero();
+    }
+
+    @Test
+    void markingIdsReadIsThreeStatementsAndIgnoresOtherRecipients() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < UNREAD; i += 2) {
+            ids.add(thread.get(i).getId());
+        }
+
+        int updated = messageService.markAsRead(ids, artist);
+
+        assertThat(updated).isEqualTo(UNREAD / 2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(unreadCountSeenBy(artist)).isEqualTo(UNREAD / 2);
+        // The sender cannot mark the recipient's messages read
+        assertThat(messageService.markAsRead(List.of(thread.get(1).getId()), collector)).isZero();
+    }
+
+    @Test
+    void broadcastCostsAConstantNumberOfStatements() {
+        List<Long> recipients = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            recipients.add(entityManager.persist(user("fan" + i + "@gallerio.test", Role.COLLECTOR)).getId());
+        }
+        recipients.add(collector.getId());
+        recipients.add(artist.getId());
+        recipients.add(-1L);
+        entityManager.flush();
+        statistics.clear();
+
+        int sent = messageService.broadcast(artist, recipients, "New collection opens Friday", "Announcement");
+
+        assertThat(sent).isEqualTo(51);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        entityManager.clear();
+        ConversationSummaryDTO withCollector = messageService.getConversations(collector, null, 10).getItems().get(0);
+        assertThat(withCollector.getLastMessagePreview()).isEqualTo("New collection opens Friday");
+        assertThat(withCollector.getLastSenderId()).isEqualTo(artist.getId());
+        assertThat(withCollector.getUnreadCount()).isEqualTo(1);
+        // The artist's own side of that thread still counts only the collector's unread messages
+        assertThat(unreadCountSeenBy(artist)).isEqualTo(UNREAD);
+        assertThat(messageService.getConversations(artist, null, 100).getItems()).hasSize(51);
+    }
+
+    @Test
+    void collectorsCannotBroadcast() {
+        User fan = entityManager.persist(user("fan@gallerio.test", Role.COLLECTOR));
+        entityManager.flush();
+
+        assertThatThrownBy(() -> messageService.broadcast(collector, List.of(artist.getId(), fan.getId()), "Buy now", ""))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(messageService.getConversations(fan, null, 10).getItems()).isEmpty();
+    }
+
+    private int unreadCountSeenBy(User user) {
+        entityManager.clear();
+        return (int) messageService.getUnreadCount(user);
+    }
+}
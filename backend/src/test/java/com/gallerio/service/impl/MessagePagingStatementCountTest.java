@@ -0,0 +1,130 @@
+package com.gallerio.service.impl;
+
+import com.gallerio.dto.CursorPage;
+import com.gallerio.dto.MessageDTO;
+import com.gallerio.mapper.MessageMapper;
+import com.gallerio.mapper.UserProfileMapper;
+import com.gallerio.model.Message;
+import com.gallerio.model.Role;
+import com.gallerio.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.gallerio.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MessageServiceImpl.class, MessageMapper.class, UserProfileMapper.class, InMemoryInvalidationBus.class})
+class MessagePagingStatementCountTest {
+
+    private static final int THREAD_MESSAGES = 120;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MessageServiceImpl messageService;
+
+    @Autowired
+    private MessageMapper messageMapper;
+
+    private Statistics statistics;
+    private User artist;
+    private User collector;
+    private User otherCollector;
+
+    @BeforeEach
+    void setUp() {
+        artist = entityManager.persist(user("artist@gallerio.test", Role.ARTIST));
+        collector = entityManager.persist(user("collector@gallerio.test", Role.COLLECTOR));
+        otherCollector = entityManager.persist(user("other@gallerio.test", Role.COLLECTOR));
+        for (int i = 0; i < THREAD_MESSAGES; i++) {
+            // Alternate direction so the thread has messages both ways
+            boolean fromCollector = i % 2 == 0;
+            persistMessage(fromCollector ? collector : artist, fromCollector ? artist : collector, "thread " + i);
+        }
+        for (int i = 0; i < 10; i++) {
+            persistMessage(otherCollector, artist, "other " + i);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void inboxPagesAreOneStatementEachAndCoverEveryMessageOnce() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<Message> page = messageService.getInboxPage(artist, cursor, 25);
+            // Mapping touches sender and recipient, which must already be loaded
+            page.getItems().stream().map(messageMapper::toDto).forEach(dto -> {
+                assertThat(dto.getRecipient().getId()).isEqualTo(artist.getId());
+                seen.add(dto.getId());
+            });
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // 60 thread messages plus 10 from the other collector, in pages of 25
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(70).doesNotHaveDuplicates();
+        assertThat(seen).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void conversationPagesIncludeBothDirectionsOnly() {
+        CursorPage<Message> first = messageService.getConversationPage(collector, artist, null, 100);
+        CursorPage<Message> second = messageService.getConversationPage(collector, artist, first.getNextCursor(), 100);
+
+        List<MessageDTO> dtos = new ArrayList<>();
+        first.getItems().forEach(message -> dtos.add(messageMapper.toDto(message)));
+        second.getItems().forEach(message -> dtos.add(messageMapper.toDto(message)));
+
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(dtos).hasSize(THREAD_MESSAGES);
+        assertThat(dtos.get(0).getContent()).isEqualTo("thread " + (THREAD_MESSAGES - 1));
+        assertThat(dtos).extracting(dto -> dto.getSender().getId())
+                .containsOnly(artist.getId(), collector.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> messageService.getInboxPage(artist, "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void persistMessage(User sender, User recipient, String content) {
+        entityManager.persist(Message.builder()
+                .sender(sender)
+                .recipient(recipient)
+                .content(content)
+                .subject("")
+                .build());
+    }
+}
@@ -1,6 +1,6 @@
 import React, { useEffect, useState, useRef } from 'react';
 import { Box, Typography, Paper, TextField, Button, Avatar, CircularProgress } from '@mui/material';
-import { artistService, collectorService } from '../services/api';
+import { artistService, collectorService, messageService } from '../services/api';
 import { useNavigate } from 'react-router-dom';
 
 const Conversation = ({ userId, currentUser, isArtist }) => {
@@ -19,8 +19,14 @@ const Conversation = ({ userId, currentUser, isArtist }) => {
       return;
     }
     fetchConversation();
-    const interval = setInterval(fetchConversation, 5000);
-    return () => clearInterval(interval);
+    // Refresh when the server pushes a message of this thread instead of polling
+    const close = messageService.openStream((message) => {
+      const otherId = String(userId);
+      if (String(message.sender?.id) === otherId || String(message.recipient?.id) === otherId) {
+        fetchConversation();
+      }
+    });
+    return close;
     // eslint-disable-next-line
   }, [userId, currentUser, navigate]);
 
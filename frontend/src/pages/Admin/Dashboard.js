@@ -21,32 +21,34 @@ const Dashboard = () => {
     totalCollectors: 0,
     totalArtworks: 0,
     totalOrders: 0,
-    orderStatusCounts: { PAID: 0, PENDING: 0, CANCELLED: 0 }
+    orderStatusCounts: { PAID: 0, PENDING_PAYMENT: 0, EXPIRED: 0 }
   });
   const [loading, setLoading] = useState(true);
 
   useEffect(() => {
     const fetchStats = async () => {
       try {
-        const [artists, collectors, artworks, orders] = await Promise.all([
+        // Single-row pages: only their totalElements counts are needed
+        const [artists, collectors, artworks, orders, paid, pending, expired] = await Promise.all([
           adminService.getArtists(),
           adminService.getCollectors(),
           artworkService.getAllArtworks(),
-          adminService.getAllOrders()
+          adminService.getOrders({}, 0, 1),
+          adminService.getOrders({ status: 'PAID' }, 0, 1),
+          adminService.getOrders({ status: 'PENDING_PAYMENT' }, 0, 1),
+          adminService.getOrders({ status: 'EXPIRED' }, 0, 1)
         ]);
 
-        // Count order statuses
-        const orderStatusCounts = orders.reduce((acc, order) => {
-          acc[order.status] = (acc[order.status] || 0) + 1;
-          return acc;
-        }, { PAID: 0, PENDING: 0, CANCELLED: 0 });
-
         setStats({
           totalArtists: artists.length,
           totalCollectors: collectors.length,
           totalArtworks: artworks.length,
-          totalOrders: orders.length,
-          orderStatusCounts
+          totalOrders: orders.totalElements,
+          orderStatusCounts: {
+            PAID: paid.totalElements,
+            PENDING_PAYMENT: pending.totalElements,
+            EXPIRED: expired.totalElements
+          }
         });
       } catch (error) {
         console.error('Error fetching dashboard stats:', error);
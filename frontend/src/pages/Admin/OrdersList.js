@@ -1,33 +1,78 @@
 import React, { useState, useEffect } from 'react';
 import { adminService } from '../../services/api';
 
+const PAGE_SIZE = 50;
+
 const OrdersList = () => {
   const [orders, setOrders] = useState([]);
+  const [page, setPage] = useState(0);
+  const [totalPages, setTotalPages] = useState(0);
+  const [filters, setFilters] = useState({ status: '', from: '', to: '' });
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
+  const [reconcileSummary, setReconcileSummary] = useState('');
+
+  // Empty filter fields are left out of the query
+  const activeFilters = () =>
+    Object.fromEntries(Object.entries(filters).filter(([, value]) => value !== ''));
+
+  const fetchOrders = async (pageToLoad = page) => {
+    try {
+      const data = await adminService.getOrders(activeFilters(), pageToLoad, PAGE_SIZE);
+      setOrders(data.items);
+      setTotalPages(data.totalPages);
+    } catch (error) {
+      setError('Failed to fetch orders');
+      console.error('Error fetching orders:', error);
+    } finally {
+      setLoading(false);
+    }
+  };
 
   useEffect(() => {
-    const fetchOrders = async () => {
-      try {
-        const data = await adminService.getAllOrders();
-        setOrders(data);
-      } catch (error) {
-        setError('Failed to fetch orders');
-        console.error('Error fetching orders:', error);
-      } finally {
-        setLoading(false);
-      }
-    };
+    fetchOrders(page);
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, [page, filters]);
+
+  const handleFilterChange = (e) => {
+    setFilters({ ...filters, [e.target.name]: e.target.value });
+    setPage(0);
+  };
+
+  const handleExport = async (format) => {
+    try {
+      const blob = await adminService.exportOrders(activeFilters(), format);
+      const url = window.URL.createObjectURL(blob);
+      const link = document.createElement('a');
+      link.href = url;
+      link.download = `orders.${format}`;
+      link.click();
+      window.URL.revokeObjectURL(url);
+    } catch (error) {
+      console.error('Error exporting orders:', error);
+    }
+  };
 
-    fetchOrders();
-  }, []);
+  const handleReconcileFile = async (e) => {
+    const file = e.target.files[0];
+    e.target.value = '';
+    if (!file) return;
+    try {
+      const report = await adminService.reconcileOrdersFile(file);
+      const counts = Object.entries(report.outcomes).map(([outcome, count]) => `${outcome}: ${count}`).join(', ');
+      setReconcileSummary(`${report.total} rows${report.truncated ? ' (truncated)' : ''} - ${counts}`);
+      await fetchOrders(page);
+    } catch (error) {
+      setReconcileSummary('Reconciliation failed');
+      console.error('Error reconciling orders:', error);
+    }
+  };
 
   const handleStatusChange = async (orderId, newStatus) => {
     try {
       await adminService.updateOrderStatus(orderId, newStatus);
-      // Refresh orders after status update
-      const updatedOrders = await adminService.getAllOrders();
-      setOrders(updatedOrders);
+      // Refresh the current page after status update
+      await fetchOrders(page);
     } catch (error) {
       console.error('Error updating order status:', error);
     }
@@ -39,7 +84,25 @@ const OrdersList = () => {
   return (
     <div className="container mx-auto px-4 py-8">
       <h1 className="text-3xl font-bold text-brown mb-8">All Orders</h1>
-      
+
+      <div className="flex flex-wrap items-center gap-4 mb-6">
+        <select name="status" value={filters.status} onChange={handleFilterChange} className="border rounded px-2 py-1">
+          <option value="">All statuses</option>
+          <option value="PENDING_PAYMENT">Pending</option>
+          <option value="PAID">Paid</option>
+          <option value="EXPIRED">Expired</option>
+        </select>
+        <input type="date" name="from" value={filters.from} onChange={handleFilterChange} className="border rounded px-2 py-1" />
+        <input type="date" name="to" value={filters.to} onChange={handleFilterChange} className="border rounded px-2 py-1" />
+        <button onClick={() => handleExport('csv')} className="bg-brown text-cream rounded px-3 py-1">Export CSV</button>
+        <button onClick={() => handleExport('ndjson')} className="bg-brown text-cream rounded px-3 py-1">Export NDJSON</button>
+        <label className="bg-brown text-cream rounded px-3 py-1 cursor-pointer">
+          Reconcile CSV
+          <input type="file" accept=".csv,text/csv" onChange={handleReconcileFile} className="hidden" />
+        </label>
+      </div>
+      {reconcileSummary && <p className="text-brown mb-4">{reconcileSummary}</p>}
+
       <div className="bg-cream rounded-lg shadow-md overflow-hidden">
         <table className="min-w-full">
           <thead>
@@ -57,17 +120,18 @@ const OrdersList = () => {
             {orders.map((order) => (
               <tr key={order.id} className="border-b border-brown/10">
                 <td className="px-6 py-4">#{order.id}</td>
-                <td className="px-6 py-4">{order.artwork.title}</td>
+                <td className="px-6 py-4">{order.artworkTitle}</td>
                 <td className="px-6 py-4">
-                  {order.artwork.user.firstname} {order.artwork.user.lastname}
+                  {order.artistFirstName} {order.artistLastName}
                 </td>
                 <td className="px-6 py-4">
-                  {order.customer.firstname} {order.customer.lastname}
+                  {order.customerFirstName} {order.customerLastName}
                 </td>
-                <td className="px-6 py-4">${order.artwork.price}</td>
+                <td className="px-6 py-4">${order.price}</td>
                 <td className="px-6 py-4">
                   <span className={`px-2 py-1 rounded-full text-sm ${
                     order.paymentStatus === 'PAID' ? 'bg-green-100 text-green-800' :
+                    order.paymentStatus === 'EXPIRED' ? 'bg-gray-100 text-gray-800' :
                     'bg-yellow-100 text-yellow-800'
                   }`}>
                     {order.paymentStatus}
@@ -81,6 +145,7 @@ const OrdersList = () => {
                   >
                     <option value="PENDING_PAYMENT">Pending</option>
                     <option value="PAID">Paid</option>
+                    <option value="EXPIRED">Expired</option>
                   </select>
                 </td>
               </tr>
@@ -88,6 +153,18 @@ const OrdersList = () => {
           </tbody>
         </table>
       </div>
+
+      {totalPages > 1 && (
+        <div className="flex justify-center items-center gap-4 mt-6">
+          <button disabled={page === 0} onClick={() => setPage(page - 1)} className="border rounded px-3 py-1">
+            Previous
+          </button>
+          <span>Page {page + 1} of {totalPages}</span>
+          <button disabled={page + 1 >= totalPages} onClick={() => setPage(page + 1)} className="border rounded px-3 py-1">
+            Next
+          </button>
+        </div>
+      )}
     </div>
   );
 };
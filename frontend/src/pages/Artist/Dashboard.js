@@ -1,13 +1,15 @@
 import React, { useState, useEffect } from 'react';
 import { useDispatch, useSelector } from 'react-redux';
 import { Link } from 'react-router-dom';
-import { getArtistArtworks, getArtistMessages, artworkService } from '../../services/api';
+import { getArtistArtworks, getArtistMessages, artworkService, orderService } from '../../services/api';
 
 const ArtistDashboard = () => {
   const dispatch = useDispatch();
   const { user } = useSelector((state) => state.auth);
   const [artworks, setArtworks] = useState([]);
   const [messages, setMessages] = useState([]);
+  const [salesPeriod, setSalesPeriod] = useState('month');
+  const [sales, setSales] = useState(null);
   const [loading, setLoading] = useState(true);
 
   useEffect(() => {
@@ -29,6 +31,13 @@ const ArtistDashboard = () => {
     fetchData();
   }, [user.id]);
 
+  // Served from the sales rollup, so switching periods never loads the orders themselves
+  useEffect(() => {
+    orderService.getArtistStats(salesPeriod)
+      .then(setSales)
+      .catch((error) => console.error('Error fetching sales stats:', error));
+  }, [salesPeriod]);
+
   return (
     <div className="min-h-screen bg-cream">
       <div className="max-w-7xl mx-auto px-4 sm:px-6 lg:px-8 py-8">
@@ -56,6 +65,65 @@ const ArtistDashboard = () => {
             </div>
           </div>
 
+          {/* Sales */}
+          <div className="col-span-1 md:col-span-3 bg-white rounded-lg shadow p-6">
+            <div className="flex justify-between items-center mb-4">
+              <h2 className="text-xl font-bold text-brown">Sales</h2>
+              <select
+                value={salesPeriod}
+                onChange={(e) => setSalesPeriod(e.target.value)}
+                className="border rounded px-2 py-1 text-brown"
+              >
+                <option value="day">Last 30 days</option>
+                <option value="week">Last 12 weeks</option>
+                <option value="month">Last 12 months</option>
+              </select>
+            </div>
+            {sales && (
+              <>
+                <div className="grid grid-cols-1 md:grid-cols-4 gap-4 mb-4">
+                  <div className="bg-coral/10 p-4 rounded-lg">
+                    <h3 className="text-sm font-semibold text-brown">Revenue</h3>
+                    <p className="text-2xl font-bold text-coral">${sales.revenue.toFixed(2)}</p>
+                  </div>
+                  <div className="bg-brown/10 p-4 rounded-lg">
+                    <h3 className="text-sm font-semibold text-brown">Paid</h3>
+                    <p className="text-2xl font-bold text-brown">{sales.ordersByStatus.PAID}</p>
+                  </div>
+                  <div className="bg-brown/10 p-4 rounded-lg">
+                    <h3 className="text-sm font-semibold text-brown">Awaiting Payment</h3>
+                    <p className="text-2xl font-bold text-brown">{sales.ordersByStatus.PENDING_PAYMENT}</p>
+                  </div>
+                  <div className="bg-brown/10 p-4 rounded-lg">
+                    <h3 className="text-sm font-semibold text-brown">Expired</h3>
+                    <p className="text-2xl font-bold text-brown">{sales.ordersByStatus.EXPIRED}</p>
+                  </div>
+                </div>
+                <div className="grid grid-cols-1 md:grid-cols-2 gap-6">
+                  <div>
+                    <h3 className="font-semibold text-brown mb-2">Revenue by {salesPeriod}</h3>
+                    {sales.buckets.length === 0 && <p className="text-sm text-brown/70">No orders in this period.</p>}
+                    {sales.buckets.map((bucket) => (
+                      <div key={bucket.periodStart} className="flex justify-between text-sm text-brown/80">
+                        <span>{bucket.periodStart}</span>
+                        <span>${bucket.revenue.toFixed(2)} ({bucket.paidCount} paid)</span>
+                      </div>
+                    ))}
+                  </div>
+                  <div>
+                    <h3 className="font-semibold text-brown mb-2">Top Artworks</h3>
+                    {sales.topArtworks.map((artwork) => (
+                      <div key={artwork.artworkId} className="flex justify-between text-sm text-brown/80">
+                        <span>{artwork.title}</span>
+                        <span>${artwork.revenue.toFixed(2)} ({artwork.paidCount} sold)</span>
+                      </div>
+                    ))}
+                  </div>
+                </div>
+              </>
+            )}
+          </div>
+
           {/* Recent Messages */}
           <div className="col-span-1 md:col-span-2 bg-white rounded-lg shadow p-6">
             <div className="flex justify-between items-center mb-4">
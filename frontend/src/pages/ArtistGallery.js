@@ -80,7 +80,7 @@ const ArtistGallery = () => {
             >
               <div className="relative group">
                   <img
-                  src={artwork.imageUrl ? (artwork.imageUrl.startsWith('http') ? artwork.imageUrl : `http://localhost:8080${artwork.imageUrl}`) : ''}
+                  src={artwork.mediumUrl ? `http://localhost:8080${artwork.mediumUrl}` : (artwork.imageUrl ? (artwork.imageUrl.startsWith('http') ? artwork.imageUrl : `http://localhost:8080${artwork.imageUrl}`) : '')}
                     alt={artwork.title}
                     className="w-full h-64 object-cover"
                   />
@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { useParams, useNavigate, Link } from 'react-router-dom';
 import { artworkService, orderService } from '../services/api';
 import mtnLogo from '../assets/mtn.png';
@@ -19,6 +19,8 @@ const ArtworkDetails = () => {
   const [showOrderModal, setShowOrderModal] = useState(false);
   const [orderError, setOrderError] = useState('');
   const [orderSuccess, setOrderSuccess] = useState('');
+  // Reused when the same purchase is retried after a timeout, so the server places it only once
+  const orderKey = useRef(null);
 
   const validatePhoneNumber = (number, provider) => {
     // Remove any non-digit characters
@@ -66,7 +68,11 @@ const ArtworkDetails = () => {
         paymentMethod: selectedPayment
       };
 
-      const response = await orderService.createOrder(orderData);
+      if (!orderKey.current) {
+        orderKey.current = crypto.randomUUID();
+      }
+      const response = await orderService.createOrder(orderData, orderKey.current);
+      orderKey.current = null;
       setShowUssdMessage(true);
       
       // Close modal and reset form after 3 seconds
@@ -82,6 +88,10 @@ const ArtworkDetails = () => {
       }, 3000);
     } catch (error) {
       console.error('Error creating order:', error);
+      if (error.response) {
+        // The server answered, so nothing was placed under this key
+        orderKey.current = null;
+      }
       setOrderError(error.response?.data?.message || 'Failed to create order. Please try again.');
     }
   };
@@ -119,10 +119,10 @@ const Orders = () => {
                   </TableCell>
                   <TableCell className="text-brown">{order.customer.firstName} {order.customer.lastName}</TableCell>
                   <TableCell className="text-brown">{order.artwork.title}</TableCell>
-                  <TableCell className="text-brown">${order.artwork.price}</TableCell>
+                  <TableCell className="text-brown">${order.amount ?? order.artwork.price}</TableCell>
                   <TableCell>
                     <Chip
-                      label={order.paymentStatus === 'PAID' ? 'Paid' : 'Not Yet Paid'}
+                      label={order.paymentStatus === 'PAID' ? 'Paid' : order.paymentStatus === 'EXPIRED' ? 'Expired' : 'Not Yet Paid'}
                       color={getStatusColor(order.paymentStatus)}
                       size="small"
                     />
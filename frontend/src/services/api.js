@@ -262,6 +262,58 @@ export const collectorService = {
     },
 };
 
+// Cursor-paged messaging, newest first: { items, nextCursor, hasMore }
+export const messageService = {
+    // Threads with otherUser, lastMessagePreview, lastMessageAt and unreadCount
+    getConversations: async (cursor, limit = 30) => {
+        const response = await api.get('/messages/conversations', { params: { cursor, limit } });
+        return response.data;
+    },
+
+    getUnreadCount: async () => {
+        const response = await api.get('/messages/unread-count');
+        return response.data.unreadCount;
+    },
+
+    getInboxPage: async (cursor, limit = 30) => {
+        const response = await api.get('/messages/inbox', { params: { cursor, limit } });
+        return response.data;
+    },
+
+    getConversationPage: async (userId, cursor, limit = 50) => {
+        const response = await api.get(`/messages/conversation/${userId}/page`, { params: { cursor, limit } });
+        return response.data;
+    },
+
+    // Bulk read marking; each resolves to { updated }
+    markConversationRead: async (userId, upToMessageId) => {
+        const response = await api.post(`/messages/conversation/${userId}/read`, { upToMessageId });
+        return response.data;
+    },
+
+    markRead: async (ids) => {
+        const response = await api.post('/messages/read', { ids });
+        return response.data;
+    },
+
+    broadcast: async (recipientIds, content, subject = '') => {
+        const response = await api.post('/messages/broadcast', { recipientIds, content, subject });
+        return response.data;
+    },
+
+    // Server-Sent Events push of messages sent to or by the current user; returns a function that closes the stream.
+    // EventSource cannot send headers, so the token goes in the query string; the browser reconnects by itself.
+    openStream: (onMessage) => {
+        const token = localStorage.getItem('token');
+        if (!token || typeof EventSource === 'undefined') {
+            return () => {};
+        }
+        const source = new EventSource(`${API_URL}/messages/stream?access_token=${encodeURIComponent(token)}`);
+        source.addEventListener('message', (event) => onMessage(JSON.parse(event.data)));
+        return () => source.close();
+    },
+};
+
 export const userService = {
     getProfile: async () => {
         try {
@@ -322,6 +374,12 @@ export const userService = {
         }
     },
 
+    // Lightweight name-prefix suggestions: [{ id, firstName, lastName, avatarHash }]
+    typeahead: async (query, limit = 10) => {
+        const response = await api.get('/users/typeahead', { params: { q: query, limit } });
+        return response.data;
+    },
+
     getCurrentUser: () => {
         return api.get('/users/me');
     },
@@ -367,8 +425,11 @@ export const followArtist = async (artistId) => {
     return response.data;
 };
 
-export const searchArtworks = async (query) => {
-    const response = await axios.get(`/api/artworks/search?q=${encodeURIComponent(query)}`);
+// Returns { items, totalHits, page, size, categoryFacets, priceFacets }
+export const searchArtworks = async (query, { category, minPrice, maxPrice, page, size } = {}) => {
+    const response = await api.get('/artworks/search', {
+        params: { q: query, category, minPrice, maxPrice, page, size },
+    });
     return response.data;
 };
 
@@ -389,6 +450,14 @@ export const artworkService = {
     return response.data;
   },
 
+  // Get one page of the catalog; pass back nextCursor to load the following page
+  getCatalogPage: async ({ category, status, minPrice, maxPrice, cursor, limit } = {}) => {
+    const response = await api.get('/artworks/catalog', {
+      params: { category, status, minPrice, maxPrice, cursor, limit },
+    });
+    return response.data;
+  },
+
   // Get artworks by user
   getArtworksByUser: async (userId) => {
     const response = await api.get(`/artworks/user/${userId}`);
@@ -422,9 +491,18 @@ export const getAllArtists = async () => {
   }
 };
 
+// Paged artist directory; sort is 'name', 'newest' or 'artworks'.
+// Returns { items, page, size, totalElements, totalPages } with artworkCount and latestArtworkThumbnailUrl per artist
+export const getArtistDirectory = async ({ sort = 'name', page = 0, size = 24 } = {}) => {
+  const response = await api.get('/users/artists', { params: { sort, page, size } });
+  return response.data;
+};
+
 export const orderService = {
-  createOrder: async (orderData) => {
-    const response = await api.post('/orders', orderData);
+  // Pass the same idempotencyKey when retrying a purchase to get the original order back
+  createOrder: async (orderData, idempotencyKey) => {
+    const headers = idempotencyKey ? { 'Idempotency-Key': idempotencyKey } : {};
+    const response = await api.post('/orders', orderData, { headers });
     return response.data;
   },
 
@@ -433,6 +511,13 @@ export const orderService = {
     return response.data;
   },
 
+  // Resolves to { period, from, to, revenue, ordersByStatus, buckets, topArtworks } for the signed-in artist.
+  // period is 'day', 'week' or 'month'; from/to (YYYY-MM-DD, inclusive) default to a recent window
+  getArtistStats: async (period = 'day', from, to) => {
+    const response = await api.get('/orders/artist/stats', { params: { period, from, to } });
+    return response.data;
+  },
+
   getCustomerOrders: async () => {
     const response = await api.get('/orders/customer');
     return response.data;
@@ -455,8 +540,36 @@ export const adminService = {
     return response.data;
   },
 
-  getAllOrders: async () => {
-    const response = await api.get('/admin/orders');
+  // Returns { items, page, size, totalElements, totalPages } of flat order rows, newest first.
+  // filters: status, from, to (YYYY-MM-DD, inclusive), artistId, customerId
+  getOrders: async (filters = {}, page = 0, size = 50) => {
+    const response = await api.get('/admin/orders', { params: { ...filters, page, size } });
+    return response.data;
+  },
+
+  // Bulk status changes: updates is [{ orderId, status }] with status PAID or EXPIRED.
+  // Resolves to { total, truncated, outcomes, results } with one outcome per row
+  reconcileOrders: async (updates) => {
+    const response = await api.post('/admin/orders/reconcile', updates);
+    return response.data;
+  },
+
+  // The same from a CSV file of "orderId,status" lines
+  reconcileOrdersFile: async (file) => {
+    const formData = new FormData();
+    formData.append('file', file);
+    const response = await api.post('/admin/orders/reconcile', formData, {
+      headers: { 'Content-Type': 'multipart/form-data' }
+    });
+    return response.data;
+  },
+
+  // format is 'csv' or 'ndjson'; resolves to a Blob of every matching order
+  exportOrders: async (filters = {}, format = 'csv') => {
+    const response = await api.get('/admin/orders/export', {
+      params: { ...filters, format },
+      responseType: 'blob'
+    });
     return response.data;
   },
 